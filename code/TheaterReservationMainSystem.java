@@ -1,6 +1,7 @@
 import lin.cs151.reservationManager.ReservationManager;
 import lin.cs151.user.management.User;
 
+import java.io.PrintStream;
 import java.util.Scanner;
 
 /**
@@ -13,6 +14,7 @@ public class TheaterReservationMainSystem {
     private User currentUser;
     private ReservationManager reservationManager;
     private Scanner in;
+    private PrintStream out;
 
     /**
      * Creates a new instance of the main reservation system
@@ -22,10 +24,23 @@ public class TheaterReservationMainSystem {
      * @param reservationManager the reservation manager to use
      */
     public TheaterReservationMainSystem(User user, Scanner in, ReservationManager reservationManager) {
+        this(user, in, System.out, reservationManager);
+    }
+
+    /**
+     * Creates a new instance of the main reservation system for one terminal session
+     *
+     * @param user               the {@link User user} that is signed into the system
+     * @param in                 the scanner of the session
+     * @param out                where to print menus and results for the session
+     * @param reservationManager the reservation manager to use
+     */
+    public TheaterReservationMainSystem(User user, Scanner in, PrintStream out, ReservationManager reservationManager) {
         this.reservationManager = reservationManager;
         currentUser = user;
         this.in = in;
-        System.out.println("Logged in as: " + user.getUsername());
+        this.out = out;
+        out.println("Logged in as: " + user.getUsername());
         mainMenuProgramFlow();
     }
 
@@ -35,7 +50,7 @@ public class TheaterReservationMainSystem {
      * @return String containing option
      */
     public String selectPrompt() {
-        System.out.print("Select Option (R, V, C, O): ");
+        out.print("Select Option (R, V, C, O): ");
         return in.nextLine();
     }
 
@@ -50,14 +65,14 @@ public class TheaterReservationMainSystem {
                 reservationManager.createNewReservation(currentUser);
             } else if (selection.compareToIgnoreCase("v") == 0) {
                 String allReservations = reservationManager.viewReservations(currentUser);
-                System.out.println(allReservations);
+                out.println(allReservations);
             } else if (selection.compareToIgnoreCase("c") == 0) {
                 reservationManager.cancelReservation(currentUser);
             } else if (selection.compareToIgnoreCase("o") == 0) {
                 reservationManager.exit(currentUser);
                 break;
             } else {
-                System.out.println("Please choose a valid option");
+                out.println("Please choose a valid option");
 
             }
         } while (true);
@@ -67,7 +82,7 @@ public class TheaterReservationMainSystem {
      * Displays main menu to user
      */
     private void displayMainMenu() {
-        System.out.println("[R]eserve    [V]iew    [C]ancel    [O]ut");
+        out.println("[R]eserve    [V]iew    [C]ancel    [O]ut");
     }
 
 }
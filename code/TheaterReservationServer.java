@@ -0,0 +1,143 @@
+import lin.cs151.reservationManager.ReservationManager;
+import lin.cs151.reservationManager.ReservationService;
+import lin.cs151.user.management.UserManagement;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation system server. Box office windows connect to it over a local socket, for example with
+ * {@code telnet localhost 5151}, and each connection gets the same menus as {@link TheaterReservationTerminal}.
+ * All sessions share one user database and one {@link ReservationService reservation service}, so every window sees
+ * the same seats. Each session runs on its own virtual thread, which costs next to nothing while it waits for input.
+ * Virtual threads need Java 21 or later; on older Java versions each session gets a platform thread instead.
+ * Once a day, reservations for show times that are long over are moved to the archive, see
+ * {@link ReservationService#archiveShowtimes(LocalDateTime)}, so a server that runs for months does not keep growing.
+ *
+ * @author Raymond Lin
+ */
+public class TheaterReservationServer {
+
+    private static final int DEFAULT_PORT = 5151;
+    private static final int DEFAULT_ARCHIVE_AFTER_DAYS = 30;
+
+    private UserManagement userManagement;
+    private ReservationService reservationService;
+
+    /**
+     * Creates a new reservation server, loading users and reservations from file
+     */
+    public TheaterReservationServer() {
+        this.userManagement = new UserManagement();
+        this.reservationService = new ReservationService();
+        // tell whoever starts the server about reservations that could not be loaded
+        for (String problem : reservationService.getLoadProblems()) {
+            System.out.println(problem);
+        }
+    }
+
+    /**
+     * Accepts connections until the server is stopped, starting a session for each of them
+     *
+     * @param port the local port to listen on
+     * @throws IOException if the server cannot listen on the port
+     */
+    public void serve(int port) throws IOException {
+        ExecutorService sessions = newSessionExecutor();
+        try (ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+            System.out.println("Reservation server listening on port " + serverSocket.getLocalPort());
+            while (true) {
+                Socket connection = serverSocket.accept();
+                sessions.submit(() -> runSession(connection));
+            }
+        } finally {
+            sessions.shutdown();
+        }
+    }
+
+    /**
+     * Creates the executor that runs sessions, with a virtual thread per session if the Java version has them.
+     * Looked up by name so the server still compiles and runs on Java versions before 21.
+     *
+     * @return an executor starting a new thread for every session
+     */
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // no virtual threads before Java 21, idle sessions then each keep a platform thread
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Archives reservations for show times that started more than a number of days ago, now and then once a day
+     *
+     * @param archiveAfterDays how many days after a show time its reservations are archived
+     */
+    public void archiveDaily(int archiveAfterDays) {
+        Thread archiver = new Thread(() -> {
+            while (true) {
+                int archived = reservationService.archiveShowtimes(LocalDateTime.now().minusDays(archiveAfterDays));
+                if (archived > 0) {
+                    System.out.println("Archived " + archived + " reservations for past show times");
+                }
+                try {
+                    Thread.sleep(TimeUnit.DAYS.toMillis(1));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "archiver");
+        // does not keep the server running once it stops accepting connections
+        archiver.setDaemon(true);
+        archiver.start();
+    }
+
+    /**
+     * Runs the welcome menu for one connection until the user exits or disconnects
+     *
+     * @param connection the connection of the box office window
+     */
+    private void runSession(Socket connection) {
+        try (connection;
+             Scanner in = new Scanner(connection.getInputStream(), StandardCharsets.UTF_8);
+             PrintStream out = new PrintStream(connection.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            ReservationManager reservationManager = new ReservationManager(in, out, reservationService);
+            TheaterReservationWelcome welcomeScreen = new TheaterReservationWelcome(in, out, userManagement, reservationManager);
+            try {
+                welcomeScreen.initialMenuProgramFlow();
+            } catch (NoSuchElementException e) {
+                // the window disconnected without exiting, keep what it confirmed
+                reservationService.saveReservations();
+            }
+        } catch (IOException e) {
+            System.out.println("Session ended: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Main program
+     *
+     * @param args the port to listen on, {@value #DEFAULT_PORT} if not given, and how many days after a show time its
+     *             reservations are archived, {@value #DEFAULT_ARCHIVE_AFTER_DAYS} if not given
+     * @throws IOException if the server cannot listen on the port
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int archiveAfterDays = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ARCHIVE_AFTER_DAYS;
+        TheaterReservationServer server = new TheaterReservationServer();
+        server.archiveDaily(archiveAfterDays);
+        server.serve(port);
+    }
+}
@@ -20,6 +20,10 @@ public class TheaterReservationTerminal {
     public void powerUp() {
         this.userMangement = new UserManagement();
         this.reservationManager = new ReservationManager(in);
+        // tell whoever starts the system about reservations that could not be loaded
+        for (String problem : reservationManager.getReservationService().getLoadProblems()) {
+            System.out.println(problem);
+        }
     }
 
     /**
@@ -1,10 +1,10 @@
-import lin.cs151.fileManagement.ReservationFileManagement;
 import lin.cs151.reservationManager.ReservationManager;
 import lin.cs151.user.authentication.AuthenticationErrorException;
 import lin.cs151.user.management.User;
 import lin.cs151.user.management.UserExistsException;
 import lin.cs151.user.management.UserManagement;
 
+import java.io.PrintStream;
 import java.util.Scanner;
 
 /**
@@ -15,6 +15,7 @@ import java.util.Scanner;
 public class TheaterReservationWelcome {
 
     private Scanner in;
+    private PrintStream out;
     private UserManagement userDataBase;
 
     // pass through after successful sign in
@@ -28,7 +29,20 @@ public class TheaterReservationWelcome {
      * @param reservationManager the pre initialized reservation manager containing all previously registered reservations
      */
     public TheaterReservationWelcome(Scanner in, UserManagement userDataBase, ReservationManager reservationManager) {
+        this(in, System.out, userDataBase, reservationManager);
+    }
+
+    /**
+     * Initializes Theater Reservation Welcome Screen for one terminal session
+     *
+     * @param in                 the Scanner of the session
+     * @param out                where to print menus and results for the session
+     * @param userDataBase       the pre initialized user database shared by all sessions
+     * @param reservationManager the reservation manager of the session
+     */
+    public TheaterReservationWelcome(Scanner in, PrintStream out, UserManagement userDataBase, ReservationManager reservationManager) {
         this.in = in;
+        this.out = out;
         this.userDataBase = userDataBase;
         this.reservationManager = reservationManager;
     }
@@ -39,7 +53,7 @@ public class TheaterReservationWelcome {
      * @return String containing option
      */
     public String selectPrompt() {
-        System.out.print("Select Option (U, I, X): ");
+        out.print("Select Option (U, I, X): ");
         return in.nextLine();
     }
 
@@ -63,14 +77,14 @@ public class TheaterReservationWelcome {
      */
     public boolean signUp() {
         // new user sign up
-        System.out.println("New User Registration:");
+        out.println("New User Registration:");
         String[] userData = fetchUsernamePassword();
         String username = userData[0];
         String password = userData[1];
         try {
             return userDataBase.signUp(username, password) != null;
         } catch (UserExistsException x) {
-            System.out.println(x.toString());
+            out.println(x.toString());
         }
         return false;
     }
@@ -81,9 +95,9 @@ public class TheaterReservationWelcome {
      * @return a String array containing username and password in plain text
      */
     private String[] fetchUsernamePassword() {
-        System.out.print("Username: ");
+        out.print("Username: ");
         String username = in.nextLine();
-        System.out.print("Password: ");
+        out.print("Password: ");
         String password = in.nextLine();
         String[] userData = new String[2];
         userData[0] = username;
@@ -95,7 +109,7 @@ public class TheaterReservationWelcome {
      * Display all available options to user
      */
     private void displayWelcomeMenu() {
-        System.out.println("Sign [U]p   Sign [I]n   E[X]it");
+        out.println("Sign [U]p   Sign [I]n   E[X]it");
     }
 
     /**
@@ -104,31 +118,30 @@ public class TheaterReservationWelcome {
      * This is the main program flowchart designed to not terminate until "E[X]it" has been selected.
      */
     public void initialMenuProgramFlow() {
-        System.out.println("If this is your first time using the system, please choose 'U' \"for Sign [U]p\" when prompted.");
+        out.println("If this is your first time using the system, please choose 'U' \"for Sign [U]p\" when prompted.");
         do {
             displayWelcomeMenu();
             String selection = selectPrompt();
             if (selection.compareToIgnoreCase("u") == 0) {
                 if (signUp()) {
-                    System.out.println("New User successfully registered. Please sign in with newly created credentials.");
+                    out.println("New User successfully registered. Please sign in with newly created credentials.");
                 }
             } else if (selection.compareToIgnoreCase("i") == 0) {
                 User user = null;
                 try {
                     user = login();
                 } catch (AuthenticationErrorException x) {
-                    System.out.println(x.getMessage());
+                    out.println(x.getMessage());
                 }
                 if (user != null) {
-                    new TheaterReservationMainSystem(user, in, reservationManager);
+                    new TheaterReservationMainSystem(user, in, out, reservationManager);
                 }
             } else if (selection.compareToIgnoreCase("x") == 0) {
-                ReservationFileManagement reservationFileManagement = new ReservationFileManagement();
-                reservationFileManagement.writeReservation(reservationManager);
+                reservationManager.getReservationService().saveReservations();
                 break;
 
             } else {
-                System.out.println("Please choose a valid option");
+                out.println("Please choose a valid option");
             }
         } while (true);
     }
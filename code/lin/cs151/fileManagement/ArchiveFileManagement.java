@@ -0,0 +1,159 @@
+package lin.cs151.fileManagement;
+
+import lin.cs151.reservationData.Reservation;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps {@link lin.cs151.reservationData.Reservation reservations} for show times that are long over in compressed
+ * archive files, so they no longer take up memory or slow down start up. The archive is only ever added to: each time
+ * reservations are archived they are compressed into a file of their own, numbered in the order they were archived.
+ * The file is written under a temporary name, forced to disk and only then renamed, so a file is either complete or
+ * not there at all, and one damaged file never hides the ones archived after it. Each reservation is one line with
+ * its fields separated by tabs: confirmation code, username, auditorium, show time and seats.
+ *
+ * @author Raymond Lin
+ */
+public class ArchiveFileManagement {
+
+    private File archiveDirectory;
+    private File legacyArchiveFile;
+    private File temporaryFile;
+
+    /**
+     * Creates new instance of the Archive File Manager
+     */
+    public ArchiveFileManagement() {
+        archiveDirectory = new File(".\\hw1\\data");
+        // archives written before each run got a file of its own
+        legacyArchiveFile = new File(archiveDirectory, "archive.gz");
+        temporaryFile = new File(archiveDirectory, "archive.tmp");
+    }
+
+    /**
+     * Adds reservations to the archive as a file of their own
+     *
+     * @param reservations the {@link Reservation reservations} to archive
+     * @return true if the reservations were written, false if the archive could not be written to
+     */
+    public boolean archive(List<Reservation> reservations) {
+        try (FileOutputStream file = new FileOutputStream(temporaryFile)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(file);
+            Writer writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+            for (Reservation r : reservations) {
+                String auditorium = r.getAuditorium() == null ? "" : r.getAuditorium();
+                writer.write(r.getConfirmationNumber() + "\t" + r.getUsername() + "\t" + auditorium + "\t"
+                        + r.getMovieTimeSlot() + "\t" + String.join(",", r.getSeatIDsAsArray()) + "\n");
+            }
+            writer.flush();
+            gzip.finish();
+            file.getFD().sync();
+        } catch (IOException e) {
+            System.out.println("Could not write reservation data to file");
+            return false;
+        }
+        try {
+            Files.move(temporaryFile.toPath(), nextArchiveFile().toPath(), StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Could not write reservation data to file");
+            return false;
+        }
+    }
+
+    /**
+     * Finds archived reservations. A reservation archived more than once, for example because the system stopped
+     * before the archived reservations were saved as gone, is only returned once.
+     *
+     * @param filter which {@link Reservation reservations} to return
+     * @return the matching reservations, in the order they were archived
+     * @throws IOException if an archive file cannot be read, so the reservations found would not be complete
+     */
+    public List<Reservation> search(Predicate<Reservation> filter) throws IOException {
+        Map<String, Reservation> found = new LinkedHashMap<>();
+        List<File> archiveFiles = listArchiveFiles();
+        if (legacyArchiveFile.exists()) {
+            archiveFiles.add(0, legacyArchiveFile);
+        }
+        for (File archiveFile : archiveFiles) {
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(archiveFile)), StandardCharsets.UTF_8))) {
+                String line = br.readLine();
+                while (line != null) {
+                    Reservation reservation = parseReservation(line.split("\t", -1));
+                    if (reservation != null && filter.test(reservation)) {
+                        found.put(reservation.getConfirmationNumber(), reservation);
+                    }
+                    line = br.readLine();
+                }
+            } catch (IOException e) {
+                throw new IOException("The archived reservations in " + archiveFile.getName() + " could not be read, so past reservations may be missing. Please restore the file from a backup.", e);
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Lists the archive files written by {@link #archive(List)}
+     *
+     * @return the archive files, in the order they were written
+     */
+    private List<File> listArchiveFiles() {
+        File[] files = archiveDirectory.listFiles((directory, name) -> name.matches("archive-\\d+\\.gz"));
+        List<File> archiveFiles = files == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(files));
+        archiveFiles.sort(Comparator.comparingLong(this::archiveNumber));
+        return archiveFiles;
+    }
+
+    /**
+     * Names the file for the next reservations to archive
+     *
+     * @return a file numbered after every archive file written so far
+     */
+    private File nextArchiveFile() {
+        long next = 1;
+        for (File archiveFile : listArchiveFiles()) {
+            next = Math.max(next, archiveNumber(archiveFile) + 1);
+        }
+        return new File(archiveDirectory, String.format("archive-%06d.gz", next));
+    }
+
+    /**
+     * Gets the number of an archive file written by {@link #archive(List)}
+     *
+     * @param archiveFile the archive file, named "archive-" followed by its number
+     * @return the number of the archive file
+     */
+    private long archiveNumber(File archiveFile) {
+        String name = archiveFile.getName();
+        return Long.parseLong(name.substring("archive-".length(), name.length() - ".gz".length()));
+    }
+
+    /**
+     * Reads one archived reservation
+     *
+     * @param fields the fields of the line
+     * @return the reservation, or null if the line cannot be read
+     */
+    private Reservation parseReservation(String[] fields) {
+        if (fields.length != 5) {
+            return null;
+        }
+        try {
+            List<String> seats = fields[4].isEmpty() ? new ArrayList<>() : new ArrayList<>(Arrays.asList(fields[4].split(",")));
+            Reservation reservation = new Reservation(fields[0], fields[1], seats.size(), LocalDateTime.parse(fields[3]), seats);
+            reservation.setAuditorium(fields[2].isEmpty() ? null : fields[2]);
+            return reservation;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
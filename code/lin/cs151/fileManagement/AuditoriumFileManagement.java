@@ -0,0 +1,56 @@
+package lin.cs151.fileManagement;
+
+import lin.cs151.theaterReservationAvailability.Auditorium;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the list of venues and auditoriums the theater operates from a designated file
+ *
+ * @author Raymond Lin
+ */
+public class AuditoriumFileManagement {
+
+    private File auditoriumDirectory;
+
+    /**
+     * Reads all {@link Auditorium auditoriums} from file. Each line is "venue auditorium layoutFile showtimeFile".
+     *
+     * @param fileName the name of the auditorium file in the data folder, for example "auditoriums.txt"
+     * @return a list of auditoriums in the order they appear in the file, or null if the file does not exist or
+     * could not be read
+     */
+    public List<Auditorium> readAuditoriums(String fileName) {
+        List<Auditorium> auditoriums = new ArrayList<>();
+        BufferedReader br;
+        try {
+            br = new BufferedReader(new FileReader(new File(auditoriumDirectory, fileName)));
+            String nextLine = br.readLine();
+            while (nextLine != null) {
+                // skips blank lines and comments
+                if (!nextLine.isBlank() && !nextLine.startsWith("#")) {
+                    String[] data = nextLine.trim().split("\\s+");
+                    auditoriums.add(new Auditorium(data[0], data[1], data[2], data[3]));
+                }
+                nextLine = br.readLine();
+            }
+            br.close();
+        } catch (FileNotFoundException e) {
+            // pretend that file does not exist
+            return null;
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Could not read auditorium file " + fileName + ": " + e.getMessage());
+            return null;
+        }
+        return auditoriums;
+    }
+
+    /**
+     * Loads new instance of the Auditorium File Manager
+     */
+    public AuditoriumFileManagement() {
+        auditoriumDirectory = new File(".\\hw1\\data");
+    }
+}
@@ -0,0 +1,324 @@
+package lin.cs151.fileManagement;
+
+import lin.cs151.reservationData.Reservation;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records every change to confirmed {@link lin.cs151.reservationData.Reservation reservations} as one line appended to
+ * a journal file, and rebuilds reservations by replaying those lines. Each line is an event, its fields separated by
+ * tabs:
+ * <pre>
+ * RESERVE  code  username  auditorium  show time  seats   a new reservation was confirmed with these seats
+ * CONFIRM  code  seats                                    a modified reservation was confirmed with these seats
+ * MODIFY   code  seats                                    these seats were cancelled from a reservation
+ * CANCEL   code                                           the reservation was cancelled
+ * </pre>
+ * Every event says what the reservation looks like afterwards, or what it no longer has, so replaying an event that is
+ * already part of a snapshot changes nothing. A snapshot therefore only needs to remember how far into the journal it
+ * was taken, see {@link #getOffset()}, and replaying from there, or from any earlier point, gives the same result.
+ *
+ * @author Raymond Lin
+ */
+public class JournalFileManagement {
+
+    private File journalFile;
+    private OutputStream journal;
+    private long offset;
+    private ReentrantLock appendLock;
+
+    /**
+     * Creates new instance of the Journal File Manager
+     */
+    public JournalFileManagement() {
+        journalFile = new File(".\\hw1\\data", "journal.txt");
+        appendLock = new ReentrantLock();
+        loadOffset();
+    }
+
+    /**
+     * Sets how far the journal has been written to the end of its last complete event. A last line cut short when
+     * the system stopped is left out, since it is cut off before the next event is written and a snapshot taken before
+     * then must not point past it.
+     */
+    private void loadOffset() {
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "r")) {
+            offset = findEndOfLastEvent(file);
+        } catch (FileNotFoundException e) {
+            // pretend that file does not exist
+            offset = 0;
+        } catch (IOException e) {
+            // pretend that file does not exist, replaying from the start gives the same result
+            offset = 0;
+        }
+    }
+
+    /**
+     * Records that a new {@link Reservation reservation} was confirmed
+     *
+     * @param reservation the confirmed reservation
+     * @throws IOException if the event could not be written to file
+     */
+    public void reserved(Reservation reservation) throws IOException {
+        append(reserveLine(reservation));
+    }
+
+    /**
+     * Records that new {@link Reservation reservations} were confirmed, for example by a batch, in one write
+     *
+     * @param reservations the confirmed reservations
+     * @throws IOException if the events could not be written to file
+     */
+    public void reserved(List<Reservation> reservations) throws IOException {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (Reservation reservation : reservations) {
+            lines.append(reserveLine(reservation));
+        }
+        append(lines.toString());
+    }
+
+    /**
+     * Writes the event for a new {@link Reservation reservation}
+     *
+     * @param reservation the confirmed reservation
+     * @return the line of the event
+     */
+    private String reserveLine(Reservation reservation) {
+        String auditorium = reservation.getAuditorium() == null ? "" : reservation.getAuditorium();
+        return line("RESERVE", reservation.getConfirmationNumber(), reservation.getUsername(), auditorium,
+                reservation.getMovieTimeSlot().toString(), String.join(",", reservation.getSeatIDsAsArray()));
+    }
+
+    /**
+     * Records that a modified {@link Reservation reservation} was confirmed again
+     *
+     * @param reservation the confirmed reservation
+     * @throws IOException if the event could not be written to file
+     */
+    public void confirmed(Reservation reservation) throws IOException {
+        append(line("CONFIRM", reservation.getConfirmationNumber(), String.join(",", reservation.getSeatIDsAsArray())));
+    }
+
+    /**
+     * Records that some seats were cancelled from a confirmed reservation
+     *
+     * @param confirmationNumber the confirmation code of the reservation
+     * @param seats              the seat numbers cancelled
+     * @throws IOException if the event could not be written to file
+     */
+    public void modified(String confirmationNumber, List<String> seats) throws IOException {
+        append(line("MODIFY", confirmationNumber, String.join(",", seats)));
+    }
+
+    /**
+     * Records that a confirmed reservation was cancelled
+     *
+     * @param confirmationNumber the confirmation code of the reservation
+     * @throws IOException if the event could not be written to file
+     */
+    public void cancelled(String confirmationNumber) throws IOException {
+        append(line("CANCEL", confirmationNumber));
+    }
+
+    /**
+     * Gets how far the journal has been written, to remember along with a snapshot of the reservations. Take it before
+     * the snapshot, so that no event is left out of both.
+     *
+     * @return the length of the journal in bytes, up to the end of its last complete event
+     */
+    public long getOffset() {
+        appendLock.lock();
+        try {
+            return offset;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Replays the journal from an offset onto reservations, for example ones read from a snapshot. Every event ends
+     * with a line break, so a last line without one was cut short when the system stopped and is not replayed; it is
+     * cut off the journal before the next event is written. Other lines that cannot be read are skipped.
+     *
+     * @param fromOffset          where to start, 0 for the whole journal
+     * @param reservations        the reservations so far by confirmation code, changed in place
+     * @param confirmationNumbers the list to add the confirmation code of every new reservation replayed to, including
+     *                            reservations cancelled since, so their codes are not issued again
+     * @return the offset the journal was replayed up to
+     */
+    public long replay(long fromOffset, Map<String, Reservation> reservations, List<String> confirmationNumbers) {
+        long replayedTo = fromOffset;
+        try (FileInputStream input = new FileInputStream(journalFile)) {
+            long end = input.getChannel().size();
+            input.getChannel().position(fromOffset);
+            BufferedReader br = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            String line = br.readLine();
+            while (line != null) {
+                long lineEnd = replayedTo + line.getBytes(StandardCharsets.UTF_8).length;
+                if (lineEnd >= end) {
+                    // no line break after it, the event was not written completely
+                    break;
+                }
+                String[] event = line.split("\t", -1);
+                if (event[0].equals("RESERVE") && event.length == 6) {
+                    confirmationNumbers.add(event[1]);
+                }
+                apply(event, reservations);
+                replayedTo = lineEnd + 1;
+                line = br.readLine();
+            }
+        } catch (FileNotFoundException e) {
+            // pretend that file does not exist
+        } catch (IOException e) {
+            // pretend the rest of the file does not exist
+        }
+        return replayedTo;
+    }
+
+    /**
+     * Applies one event to reservations
+     *
+     * @param event        the fields of the event
+     * @param reservations the reservations by confirmation code
+     */
+    private void apply(String[] event, Map<String, Reservation> reservations) {
+        try {
+            if (event[0].equals("RESERVE") && event.length == 6) {
+                Reservation reservation = new Reservation(event[1], event[2], 0, LocalDateTime.parse(event[4]), new ArrayList<>());
+                reservation.setAuditorium(event[3].isEmpty() ? null : event[3]);
+                setSeats(reservation, event[5]);
+                reservations.put(event[1], reservation);
+            } else if (event[0].equals("CONFIRM") && event.length == 3 && reservations.containsKey(event[1])) {
+                setSeats(reservations.get(event[1]), event[2]);
+            } else if (event[0].equals("MODIFY") && event.length == 3 && reservations.containsKey(event[1])) {
+                Reservation reservation = reservations.get(event[1]);
+                for (String seat : splitSeats(event[2])) {
+                    if (reservation.checkSeatIDPresent(seat)) {
+                        reservation.removeReservedSeat(seat);
+                    }
+                }
+            } else if (event[0].equals("CANCEL") && event.length == 2) {
+                reservations.remove(event[1]);
+            }
+        } catch (DateTimeParseException e) {
+            // skip the event, it was not written completely
+        }
+    }
+
+    /**
+     * Replaces the seats of a reservation
+     *
+     * @param reservation the reservation to change
+     * @param seats       the seat numbers it now has, separated by commas
+     */
+    private void setSeats(Reservation reservation, String seats) {
+        for (String seat : new ArrayList<>(reservation.getSeatIDsAsArray())) {
+            reservation.removeReservedSeat(seat);
+        }
+        for (String seat : splitSeats(seats)) {
+            reservation.addSeats(seat);
+        }
+    }
+
+    /**
+     * Splits seat numbers written by {@link #line(String...)}
+     *
+     * @param seats the seat numbers separated by commas
+     * @return the seat numbers
+     */
+    private List<String> splitSeats(String seats) {
+        return seats.isEmpty() ? Collections.emptyList() : Arrays.asList(seats.split(","));
+    }
+
+    /**
+     * Opens the journal for appending. Anything after the end of the last event written is cut off first, which is a
+     * last line cut short when the system stopped or the part of a failed write that reached the file, so it is never
+     * replayed, not even once the next event follows it.
+     *
+     * @throws IOException if the journal cannot be opened
+     */
+    private void openJournal() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+            file.setLength(Math.min(offset, findEndOfLastEvent(file)));
+        }
+        journal = new FileOutputStream(journalFile, true);
+        offset = journalFile.length();
+    }
+
+    /**
+     * Finds where the last complete event of the journal ends, which is after the last line break
+     *
+     * @param file the journal
+     * @return the length of the journal without a last line cut short
+     * @throws IOException if the journal cannot be read
+     */
+    private long findEndOfLastEvent(RandomAccessFile file) throws IOException {
+        long end = file.length();
+        while (end > 0) {
+            file.seek(end - 1);
+            if (file.read() == '\n') {
+                break;
+            }
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Writes one event as a line of the journal
+     *
+     * @param fields the fields of the event
+     * @return the line, ending with a line break
+     */
+    private String line(String... fields) {
+        return String.join("\t", fields) + "\n";
+    }
+
+    /**
+     * Appends events to the journal and flushes them to file in one write. If the write fails, the journal is opened
+     * again for the next event, cutting off whatever part of these events was written.
+     *
+     * @param lines the lines of the events, see {@link #line(String...)}
+     * @throws IOException if the events could not be written to file
+     */
+    private void append(String lines) throws IOException {
+        byte[] bytes = lines.getBytes(StandardCharsets.UTF_8);
+        appendLock.lock();
+        try {
+            if (journal == null) {
+                openJournal();
+            }
+            journal.write(bytes);
+            journal.flush();
+            offset += bytes.length;
+        } catch (IOException e) {
+            closeJournal();
+            throw e;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the journal after a failed write, so it is opened again for the next event
+     */
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            // it is opened again anyway
+        }
+        journal = null;
+    }
+}
@@ -0,0 +1,70 @@
+package lin.cs151.fileManagement;
+
+import lin.cs151.theaterReservationAvailability.SeatType;
+import lin.cs151.theaterReservationAvailability.VenueLayout;
+
+import java.io.*;
+
+/**
+ * Reads the layout of a theater hall, its sections and the ticket price of each seat type, from a designated file
+ *
+ * @author Raymond Lin
+ */
+public class LayoutFileManagement {
+
+    private File layoutDirectory;
+
+    /**
+     * Parses one line of a layout file. Lines are either
+     * "price SEAT_TYPE price" or "section SEAT_TYPE prefix firstSeatNumber lastSeatNumber heading".
+     *
+     * @param layout the {@link VenueLayout layout} to add the line to
+     * @param line   the line to parse
+     */
+    private void parseLayoutLine(VenueLayout layout, String line) {
+        String[] data = line.trim().split("\\s+", 6);
+        if (data[0].compareToIgnoreCase("price") == 0) {
+            layout.setPrice(SeatType.valueOf(data[1]), Double.parseDouble(data[2]));
+        } else if (data[0].compareToIgnoreCase("section") == 0) {
+            layout.addSection(SeatType.valueOf(data[1]), data[2], Integer.parseInt(data[3]), Integer.parseInt(data[4]), data[5]);
+        }
+    }
+
+    /**
+     * Reads a {@link VenueLayout layout} from file
+     *
+     * @param fileName the name of the layout file in the data folder, for example "layout.txt"
+     * @return the compiled layout, or null if the file does not exist or is not a valid layout
+     */
+    public VenueLayout readLayout(String fileName) {
+        VenueLayout layout = new VenueLayout(fileName);
+        BufferedReader br;
+        try {
+            br = new BufferedReader(new FileReader(new File(layoutDirectory, fileName)));
+            String nextLine = br.readLine();
+            while (nextLine != null) {
+                // skips blank lines and comments
+                if (!nextLine.isBlank() && !nextLine.startsWith("#")) {
+                    parseLayoutLine(layout, nextLine);
+                }
+                nextLine = br.readLine();
+            }
+            br.close();
+            layout.compile();
+        } catch (FileNotFoundException e) {
+            // pretend that file does not exist
+            return null;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not read layout file " + fileName + ": " + e.getMessage());
+            return null;
+        }
+        return layout;
+    }
+
+    /**
+     * Loads new instance of the Layout File Manager
+     */
+    public LayoutFileManagement() {
+        layoutDirectory = new File(".\\hw1\\data");
+    }
+}
@@ -4,6 +4,8 @@ import lin.cs151.reservationData.Reservation;
 import lin.cs151.reservationManager.ReservationManager;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -16,6 +18,9 @@ import java.util.*;
 public class ReservationFileManagement {
 
     private File reservationFile;
+    private File temporaryFile;
+    private long journalOffset;
+    private long confirmationSequence;
 
     /**
      * Parses {@link lin.cs151.reservationData.Reservation reservation} data from file in a certain format
@@ -38,7 +43,12 @@ public class ReservationFileManagement {
         String seatArrayAsString = br.readLine();
         String[] seatIDs = seatArrayAsString.split(", ");
         List<String> seatArray = new ArrayList<>(Arrays.asList(seatIDs));
-        return new Reservation(confirmationNumber, username, totalNumberOfSeatsReserved, reservationTimeSlot, seatArray);
+        Reservation reservation = new Reservation(confirmationNumber, username, totalNumberOfSeatsReserved, reservationTimeSlot, seatArray);
+        // reservations written before auditoriums were added go straight to "endReservation"
+        if ("Auditorium: ".equals(br.readLine())) {
+            reservation.setAuditorium(br.readLine());
+        }
+        return reservation;
     }
 
     /**
@@ -59,6 +69,10 @@ public class ReservationFileManagement {
                 if (nextLine.compareTo("newReservation") == 0) {
                     Reservation reservation = parseReservationData(br);
                     reservationListFromFile.add(reservation);
+                } else if (nextLine.compareTo("Journal Offset: ") == 0) {
+                    journalOffset = Long.parseLong(br.readLine());
+                } else if (nextLine.compareTo("Confirmation Sequence: ") == 0) {
+                    confirmationSequence = Long.parseLong(br.readLine());
                 }
                 nextLine = br.readLine();
                 //System.out.println(nextLine);
@@ -72,25 +86,94 @@ public class ReservationFileManagement {
         return reservationListFromFile;
     }
 
+    /**
+     * Gets how far into the {@link JournalFileManagement journal} the reservations read by
+     * {@link #readReservationFile()} go. Files written before there was a journal go nowhere into it.
+     *
+     * @return the journal offset saved with the reservations, or 0
+     */
+    public long getJournalOffset() {
+        return journalOffset;
+    }
+
+    /**
+     * Gets the sequence number of the next confirmation code, as saved with the reservations read by
+     * {@link #readReservationFile()}
+     *
+     * @return the sequence number saved with the reservations, or 0 if none was saved
+     */
+    public long getConfirmationSequence() {
+        return confirmationSequence;
+    }
+
     /**
      * Write all {@link lin.cs151.reservationData.Reservation reservations} from {@link lin.cs151.reservationManager.ReservationManager reservation manager}
      *
      * @param reservationManager the {@link lin.cs151.reservationManager.ReservationManager reservation manager} containing all {@link lin.cs151.reservationData.Reservation reservations}
      */
     public void writeReservation(ReservationManager reservationManager) {
-        List<Reservation> reservationList = reservationManager.compileAllReservation();
-        BufferedWriter bw;
-        try {
-            bw = new BufferedWriter(new FileWriter(reservationFile));
+        writeReservation(reservationManager.compileAllReservation());
+    }
+
+    /**
+     * Write a list of {@link lin.cs151.reservationData.Reservation reservations} to file in one go, replacing what
+     * was saved before
+     *
+     * @param reservationList all {@link lin.cs151.reservationData.Reservation reservations} to save
+     */
+    public void writeReservation(List<Reservation> reservationList) {
+        writeReservation(reservationList, 0);
+    }
+
+    /**
+     * Write a list of {@link lin.cs151.reservationData.Reservation reservations} to file in one go as a snapshot of the
+     * {@link JournalFileManagement journal}, replacing what was saved before
+     *
+     * @param reservationList all {@link lin.cs151.reservationData.Reservation reservations} to save
+     * @param journalOffset   how far into the journal the reservations go, see {@link JournalFileManagement#getOffset()}
+     */
+    public void writeReservation(List<Reservation> reservationList, long journalOffset) {
+        writeReservation(reservationList, journalOffset, 0);
+    }
+
+    /**
+     * Write a list of {@link lin.cs151.reservationData.Reservation reservations} to file in one go as a snapshot of the
+     * {@link JournalFileManagement journal}, replacing what was saved before, along with how far confirmation codes
+     * have been issued. The snapshot is written to a file of its own first and only then put in place of the old
+     * one, so a system that stops while saving keeps the old snapshot rather than part of the new one.
+     *
+     * @param reservationList      all {@link lin.cs151.reservationData.Reservation reservations} to save
+     * @param journalOffset        how far into the journal the reservations go, see {@link JournalFileManagement#getOffset()}
+     * @param confirmationSequence the sequence number of the next confirmation code, or 0 to leave it out
+     */
+    public void writeReservation(List<Reservation> reservationList, long journalOffset, long confirmationSequence) {
+        try (FileOutputStream file = new FileOutputStream(temporaryFile)) {
+            BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(file));
+            if (journalOffset > 0) {
+                bw.write("Journal Offset: \n" + journalOffset + "\n");
+            }
+            if (confirmationSequence > 0) {
+                bw.write("Confirmation Sequence: \n" + confirmationSequence + "\n");
+            }
             for (Reservation r : reservationList) {
                 // marks start of reservation in file
                 String beginReservation = "newReservation\n";
                 String reservationData = r.toString();
+                if (r.getAuditorium() != null) {
+                    reservationData += "Auditorium: \n" + r.getAuditorium() + "\n";
+                }
                 // marks end of reservation in file
                 String endReservation = "endReservation\n";
                 bw.write(beginReservation + reservationData + endReservation);
             }
-            bw.close();
+            bw.flush();
+            file.getFD().sync();
+        } catch (IOException e) {
+            System.out.println("Could not write reservation data to file");
+            return;
+        }
+        try {
+            Files.move(temporaryFile.toPath(), reservationFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             System.out.println("Could not write reservation data to file");
         }
@@ -101,5 +184,6 @@ public class ReservationFileManagement {
      */
     public ReservationFileManagement() {
         reservationFile = new File(".\\hw1\\data", "reservation.txt");
+        temporaryFile = new File(".\\hw1\\data", "reservation.tmp");
     }
 }
@@ -0,0 +1,81 @@
+package lin.cs151.fileManagement;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the show time schedule of the theater from a designated file
+ *
+ * @author Raymond Lin
+ */
+public class ShowtimeFileManagement {
+
+    private File showtimeDirectory;
+
+    /**
+     * Parses one line of a show time file. Lines are either a single show time "MM-dd-yyyy HH:mm" or a run of shows
+     * playing every day "daily MM-dd-yyyy MM-dd-yyyy HH:mm HH:mm ...", where both dates are included.
+     *
+     * @param showtimes the list to add the show times to
+     * @param line      the line to parse
+     */
+    private void parseShowtimeLine(List<LocalDateTime> showtimes, String line) {
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM-dd-yyyy");
+        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+        String[] data = line.trim().split("\\s+");
+        if (data[0].compareToIgnoreCase("daily") == 0) {
+            LocalDate lastDay = LocalDate.parse(data[2], dateFormatter);
+            for (LocalDate day = LocalDate.parse(data[1], dateFormatter); !day.isAfter(lastDay); day = day.plusDays(1)) {
+                for (int i = 3; i < data.length; i++) {
+                    showtimes.add(LocalDateTime.of(day, LocalTime.parse(data[i], timeFormatter)));
+                }
+            }
+        } else {
+            showtimes.add(LocalDateTime.of(LocalDate.parse(data[0], dateFormatter), LocalTime.parse(data[1], timeFormatter)));
+        }
+    }
+
+    /**
+     * Reads all show times from file
+     *
+     * @param fileName the name of the show time file in the data folder, for example "showtimes.txt"
+     * @return a list of show times in the order they appear in the file, or null if the file does not exist or
+     * could not be read
+     */
+    public List<LocalDateTime> readShowtimes(String fileName) {
+        List<LocalDateTime> showtimes = new ArrayList<>();
+        BufferedReader br;
+        try {
+            br = new BufferedReader(new FileReader(new File(showtimeDirectory, fileName)));
+            String nextLine = br.readLine();
+            while (nextLine != null) {
+                // skips blank lines and comments
+                if (!nextLine.isBlank() && !nextLine.startsWith("#")) {
+                    parseShowtimeLine(showtimes, nextLine);
+                }
+                nextLine = br.readLine();
+            }
+            br.close();
+        } catch (FileNotFoundException e) {
+            // pretend that file does not exist
+            return null;
+        } catch (IOException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Could not read show time file " + fileName + ": " + e.getMessage());
+            return null;
+        }
+        return showtimes;
+    }
+
+    /**
+     * Loads new instance of the Show Time File Manager
+     */
+    public ShowtimeFileManagement() {
+        showtimeDirectory = new File(".\\hw1\\data");
+    }
+}
@@ -1,14 +1,20 @@
 package lin.cs151.reservationData;
 
 import lin.cs151.fileManagement.ReservationFileManagement;
+import lin.cs151.theaterReservationAvailability.SeatHold;
+import lin.cs151.theaterReservationAvailability.WaitlistEntry;
 import lin.cs151.user.management.User;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Handles the structure of each Reservation in memory
+ * Handles the structure of each Reservation in memory. Seats may be added to a reservation by another thread than its
+ * user's, for example when a {@link lin.cs151.theaterReservationAvailability.Waitlist waitlist} holds seats for it, so
+ * its seats, holds and places on waitlists can be read and changed from any thread.
  *
  * @author Raymond Lin
  */
@@ -16,24 +22,43 @@ public class Reservation implements Comparable<Reservation> {
 
     private String confirmationNumber;
     private String username;
-    private int totalSeatsReserved;
+    private String auditorium;
+    private volatile int totalSeatsReserved;
     private LocalDateTime movieTimeSlot;
     private List<String> seatIDs;
     private String tempConfirmationNumber;
+    private List<SeatHold> seatHolds;
+    private List<WaitlistEntry> waitlistEntries;
+    private AtomicLong version;
 
     /**
-     * Creates a new reservation instance
+     * Creates a new reservation instance for the theater's first auditorium
      *
      * @param username         the username from {@link User#getUsername()}
      * @param selectedTimeSlot the date and time, see {@linkplain LocalDateTime}, to use for this reservation
      */
     public Reservation(String username, LocalDateTime selectedTimeSlot) {
+        this(username, null, selectedTimeSlot);
+    }
+
+    /**
+     * Creates a new reservation instance
+     *
+     * @param username         the username from {@link User#getUsername()}
+     * @param auditorium       the id of the auditorium, see {@link lin.cs151.theaterReservationAvailability.Auditorium#getId()}, or null for the theater's first auditorium
+     * @param selectedTimeSlot the date and time, see {@linkplain LocalDateTime}, to use for this reservation
+     */
+    public Reservation(String username, String auditorium, LocalDateTime selectedTimeSlot) {
         this.username = username;
+        this.auditorium = auditorium;
         this.confirmationNumber = "";
         this.totalSeatsReserved = 0;
         this.movieTimeSlot = selectedTimeSlot;
-        this.seatIDs = new ArrayList<>();
+        this.seatIDs = new CopyOnWriteArrayList<>();
         this.tempConfirmationNumber = "";
+        this.seatHolds = new CopyOnWriteArrayList<>();
+        this.waitlistEntries = new CopyOnWriteArrayList<>();
+        this.version = new AtomicLong();
     }
 
     /**
@@ -50,8 +75,67 @@ public class Reservation implements Comparable<Reservation> {
         this.username = username;
         this.totalSeatsReserved = totalSeatsReserved;
         this.movieTimeSlot = movieTimeSlot;
-        this.seatIDs = seatIDs;
+        this.seatIDs = new CopyOnWriteArrayList<>(seatIDs);
         this.tempConfirmationNumber = "";
+        this.seatHolds = new CopyOnWriteArrayList<>();
+        this.waitlistEntries = new CopyOnWriteArrayList<>();
+        this.version = new AtomicLong();
+    }
+
+    /**
+     * Gets the version of this reservation, to pass back when changing it so that changes made in the meantime are
+     * not overwritten. The version is even while nobody is changing the reservation and odd while someone is. Every
+     * change to its seats, holds or confirmation code moves it on as well, whoever makes it, for example a waitlist
+     * holding seats for it or its confirmation.
+     *
+     * @return the current version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Starts changing this reservation if it is still at the version the change was based on and nobody else is
+     * changing it. Every call that returns true must be followed by {@link #finishChange()}.
+     *
+     * @param expectedVersion the version the change was based on, see {@link #getVersion()}
+     * @return true if the change may go ahead, false if the reservation was changed since or is being changed
+     */
+    public boolean startChange(long expectedVersion) {
+        return expectedVersion % 2 == 0 && version.compareAndSet(expectedVersion, expectedVersion + 1);
+    }
+
+    /**
+     * Finishes a change started by {@link #startChange(long)}, moving the reservation on to its next version
+     */
+    public void finishChange() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Moves this reservation on to a later version after its seats, holds or confirmation code changed, keeping the
+     * version odd if someone is in the middle of changing it
+     */
+    private void changed() {
+        version.addAndGet(2);
+    }
+
+    /**
+     * Sets the auditorium this reservation is for
+     *
+     * @param auditorium the id of the auditorium, or null for the theater's first auditorium
+     */
+    public void setAuditorium(String auditorium) {
+        this.auditorium = auditorium;
+    }
+
+    /**
+     * Gets the auditorium this reservation is for
+     *
+     * @return the id of the auditorium, see {@link lin.cs151.theaterReservationAvailability.Auditorium#getId()}, or null for the theater's first auditorium
+     */
+    public String getAuditorium() {
+        return auditorium;
     }
 
     /**
@@ -68,9 +152,72 @@ public class Reservation implements Comparable<Reservation> {
      *
      * @param seatID seat number to add
      */
-    public void addSeats(String seatID) {
+    public synchronized void addSeats(String seatID) {
         seatIDs.add(seatID);
         addSeatsReserved(1);
+        changed();
+    }
+
+    /**
+     * Records a {@link SeatHold hold} on seats made for this reservation
+     *
+     * @param hold the hold to record
+     */
+    public void addSeatHold(SeatHold hold) {
+        seatHolds.add(hold);
+        changed();
+    }
+
+    /**
+     * Forgets {@link SeatHold holds} that have been confirmed or released. Holds recorded since are kept.
+     *
+     * @param holds the holds to forget
+     */
+    public void removeSeatHolds(Collection<SeatHold> holds) {
+        if (seatHolds.removeAll(holds)) {
+            changed();
+        }
+    }
+
+    /**
+     * Gets all {@link SeatHold holds} made for this reservation
+     *
+     * @return a read only list of holds, safe to loop over while holds are added
+     */
+    public List<SeatHold> getSeatHolds() {
+        return Collections.unmodifiableList(seatHolds);
+    }
+
+    /**
+     * Records a place on a {@link lin.cs151.theaterReservationAvailability.Waitlist waitlist} taken for this reservation
+     *
+     * @param entry the place on the waitlist
+     */
+    public void addWaitlistEntry(WaitlistEntry entry) {
+        waitlistEntries.add(entry);
+    }
+
+    /**
+     * Gets all places on a {@link lin.cs151.theaterReservationAvailability.Waitlist waitlist} taken for this reservation
+     *
+     * @return a read only list of places on a waitlist, safe to loop over while places are added
+     */
+    public List<WaitlistEntry> getWaitlistEntries() {
+        return Collections.unmodifiableList(waitlistEntries);
+    }
+
+    /**
+     * Checks if this reservation is still waiting for seats on a waitlist
+     *
+     * @return true if any place on a waitlist taken for this reservation has not been given seats yet
+     */
+    public boolean isWaitlisted() {
+        for (WaitlistEntry entry : waitlistEntries) {
+            if (entry.isWaiting()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -80,6 +227,7 @@ public class Reservation implements Comparable<Reservation> {
      */
     public void confirmReservation(String confirmationNumber) {
         this.confirmationNumber = confirmationNumber;
+        changed();
     }
 
     /**
@@ -127,18 +275,19 @@ public class Reservation implements Comparable<Reservation> {
      *
      * @param seatID the seat number to remove from this reservation
      */
-    public void removeReservedSeat(String seatID) {
+    public synchronized void removeReservedSeat(String seatID) {
         seatIDs.remove(seatID);
         addSeatsReserved(-1);
+        changed();
     }
 
     /**
      * Get a list of seat numbers as a list
      *
-     * @return a list of seat numbers
+     * @return a read only list of seat numbers, safe to loop over while seats are added
      */
     public List<String> getSeatIDsAsArray() {
-        return seatIDs;
+        return Collections.unmodifiableList(seatIDs);
     }
 
     /**
@@ -222,6 +371,6 @@ public class Reservation implements Comparable<Reservation> {
      */
     public boolean equals(Object o) {
         Reservation other = (Reservation) o;
-        return movieTimeSlot.compareTo(other.movieTimeSlot) == 0;
+        return movieTimeSlot.compareTo(other.movieTimeSlot) == 0 && Objects.equals(auditorium, other.auditorium);
     }
 }
@@ -0,0 +1,126 @@
+package lin.cs151.reservationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues confirmation codes such as "1-6ZP3KQ" without looking at existing reservations. A code is the node that issued
+ * it followed by a sequence number written with 32 letters and digits that cannot be mistaken for each other when read
+ * aloud (no I, L, O or U).
+ * The sequence starts at the number of seconds since 2020 when the system starts. The sequence reached is saved with
+ * the reservations, see {@link #getSequence()}, and codes issued since are read back from the journal, so a restart
+ * carries on past every code issued before it, even when codes have been issued faster than one per second for so long
+ * that the sequence is far ahead of the clock. The clock only ever moves the sequence up. A saved sequence or code
+ * that seems too far ahead is trusted anyway: skipping numbers costs nothing, while ignoring it could issue a code
+ * again. Any number of threads may ask for codes at the same time.
+ *
+ * @author Raymond Lin
+ */
+public class ConfirmationCodeGenerator {
+
+    private static final String DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final int MIN_LENGTH = 6;
+    private static final long EPOCH_SECONDS = LocalDateTime.of(2020, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private String prefix;
+    private AtomicLong sequence;
+
+    /**
+     * Creates a new generator
+     *
+     * @param node the number of the node issuing codes, from 0 to 31. No two running systems may share a node.
+     */
+    public ConfirmationCodeGenerator(int node) {
+        this.prefix = DIGITS.charAt(node) + "-";
+        this.sequence = new AtomicLong(Math.max(0, System.currentTimeMillis() / 1000 - EPOCH_SECONDS));
+    }
+
+    /**
+     * Issues the next confirmation code
+     *
+     * @return a confirmation code no other call has returned
+     */
+    public String next() {
+        return prefix + encode(sequence.getAndIncrement());
+    }
+
+    /**
+     * Records a confirmation code that was issued before, so it is never issued again. Codes from other nodes or in
+     * other formats are ignored.
+     *
+     * @param confirmationNumber a confirmation code already in use
+     * @return true if the code was recorded, false if it was ignored
+     */
+    public boolean issued(String confirmationNumber) {
+        if (!confirmationNumber.startsWith(prefix)) {
+            return false;
+        }
+        String encoded = confirmationNumber.substring(prefix.length());
+        long value = decode(encoded);
+        if (value < 0 || !encode(value).equals(encoded)) {
+            return false;
+        }
+        return skipTo(value + 1);
+    }
+
+    /**
+     * Gets the sequence number of the next code, to save so that a restart carries on from it
+     *
+     * @return the sequence number of the next code
+     */
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Carries on from a sequence number saved by {@link #getSequence()}, unless the sequence is already past it
+     *
+     * @param next the sequence number of the next code
+     * @return true if the sequence number was accepted, false if it was ignored because it is negative
+     */
+    public boolean skipTo(long next) {
+        if (next < 0) {
+            return false;
+        }
+        sequence.accumulateAndGet(next, Math::max);
+        return true;
+    }
+
+    /**
+     * Writes a sequence number with {@link #DIGITS}, padded to at least {@link #MIN_LENGTH} characters
+     *
+     * @param value the sequence number
+     * @return the encoded sequence number
+     */
+    private String encode(long value) {
+        char[] buffer = new char[13];
+        int position = buffer.length;
+        do {
+            buffer[--position] = DIGITS.charAt((int) (value & 31));
+            value >>>= 5;
+        } while (value != 0 || buffer.length - position < MIN_LENGTH);
+        return new String(buffer, position, buffer.length - position);
+    }
+
+    /**
+     * Reads a sequence number written by {@link #encode(long)}
+     *
+     * @param encoded the encoded sequence number
+     * @return the sequence number, or -1 if it was not written by {@link #encode(long)}
+     */
+    private long decode(String encoded) {
+        if (encoded.length() < MIN_LENGTH || encoded.length() > 12) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            int digit = DIGITS.indexOf(encoded.charAt(i));
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 5) | digit;
+        }
+        return value;
+    }
+}
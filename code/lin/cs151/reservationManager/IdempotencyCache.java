@@ -0,0 +1,188 @@
+package lin.cs151.reservationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Remembers the outcome of calls made with an idempotency key, so that a client retrying a call after a timeout gets
+ * the outcome of its first attempt instead of making the call again. A retry that arrives while the first attempt is
+ * still running waits for it. A key is tied to the request it was first sent with; sending it with a different request
+ * fails with {@link IdempotencyKeyReusedException} instead of returning the outcome of the other request.
+ * Only a limited number of keys are kept, each for a limited time; the oldest keys are forgotten first. Calls that fail
+ * with a checked exception are remembered like any other outcome, calls that fail with a runtime exception are not.
+ *
+ * @param <T> the type of the outcome
+ * @author Raymond Lin
+ */
+public class IdempotencyCache<T> {
+
+    private int capacity;
+    private long timeToLiveMillis;
+    private LinkedHashMap<String, Entry<T>> outcomes;
+    private ReentrantLock lock;
+
+    /**
+     * A call to make at most once per idempotency key
+     *
+     * @param <T> the type of the outcome
+     */
+    public interface Call<T> {
+
+        /**
+         * Makes the call
+         *
+         * @return the outcome of the call
+         * @throws Exception a user friendly reason the call failed
+         */
+        T call() throws Exception;
+    }
+
+    /**
+     * The outcome of a call, the request it was made for and when it is forgotten
+     *
+     * @param <T> the type of the outcome
+     */
+    private static class Entry<T> {
+
+        private String request;
+        private CompletableFuture<T> outcome;
+        private long expiresAt;
+
+        /**
+         * Creates a new entry
+         *
+         * @param request   a description of the request the call was made for
+         * @param outcome   the outcome of the call, completed once the call is made
+         * @param expiresAt when the key is forgotten, in milliseconds since the epoch
+         */
+        Entry(String request, CompletableFuture<T> outcome, long expiresAt) {
+            this.request = request;
+            this.outcome = outcome;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Creates a new cache
+     *
+     * @param capacity         the most keys to remember at once
+     * @param timeToLiveMillis how long to remember a key for, in milliseconds
+     */
+    public IdempotencyCache(int capacity, long timeToLiveMillis) {
+        this.capacity = capacity;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.outcomes = new LinkedHashMap<>();
+        this.lock = new ReentrantLock();
+    }
+
+    /**
+     * Makes a call unless a call with the same key was made before, on the calling thread
+     *
+     * @param key     the idempotency key of the call, or null to always make the call
+     * @param request a description of the request, the same every time the request is sent
+     * @param call    the call to make
+     * @return a future completed with the outcome of the call with this key, or with the exception it threw
+     */
+    public CompletableFuture<T> execute(String key, String request, Call<T> call) {
+        CompletableFuture<T> outcome = new CompletableFuture<>();
+        if (key != null) {
+            CompletableFuture<T> earlier = putIfAbsent(key, request, outcome);
+            if (earlier != null) {
+                return earlier;
+            }
+        }
+        try {
+            outcome.complete(call.call());
+        } catch (RuntimeException e) {
+            remove(key, outcome);
+            outcome.completeExceptionally(e);
+        } catch (Exception e) {
+            outcome.completeExceptionally(e);
+        }
+        return outcome;
+    }
+
+    /**
+     * Records that a call with a key is being made, unless one was made before. The caller must complete the outcome,
+     * or {@link #remove(String, CompletableFuture) remove} it if the call could not be made.
+     *
+     * @param key     the idempotency key of the call
+     * @param request a description of the request, the same every time the request is sent
+     * @param outcome the future to complete with the outcome of the call
+     * @return the outcome of the call made before with this key, a future failed with
+     * {@link IdempotencyKeyReusedException} if that call was made for a different request, or null if the caller
+     * should make the call
+     */
+    public CompletableFuture<T> putIfAbsent(String key, String request, CompletableFuture<T> outcome) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            evict(now);
+            Entry<T> earlier = outcomes.get(key);
+            if (earlier != null) {
+                if (!earlier.request.equals(request)) {
+                    return CompletableFuture.failedFuture(new IdempotencyKeyReusedException("The request key " + key + " was already used for a different request. Please send this request with a new key."));
+                }
+                return earlier.outcome;
+            }
+            outcomes.put(key, new Entry<>(request, outcome, now + timeToLiveMillis));
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets a key, so the call can be made again. Nothing happens if the key now belongs to another outcome.
+     *
+     * @param key     the idempotency key of the call, or null
+     * @param outcome the outcome recorded by {@link #putIfAbsent(String, String, CompletableFuture)}
+     */
+    public void remove(String key, CompletableFuture<T> outcome) {
+        if (key == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            Entry<T> entry = outcomes.get(key);
+            if (entry != null && entry.outcome == outcome) {
+                outcomes.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of keys remembered, including keys that have expired but have not been forgotten yet
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return outcomes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets expired keys, and the oldest keys while there is no room for another one. Keys are kept in the order
+     * they were added, which is also the order they expire in, so only the oldest keys are looked at.
+     *
+     * @param now the current time, in milliseconds since the epoch
+     */
+    private void evict(long now) {
+        Iterator<Entry<T>> iterator = outcomes.values().iterator();
+        while (iterator.hasNext()) {
+            Entry<T> oldest = iterator.next();
+            if (outcomes.size() < capacity && oldest.expiresAt > now) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package lin.cs151.reservationManager;
+
+/**
+ * Exception which is thrown when an idempotency key that was already used for one request is sent with a different
+ * request.
+ *
+ * @author Raymond Lin
+ */
+public class IdempotencyKeyReusedException extends Exception {
+
+    /**
+     * Creates a new exception when an idempotency key is reused for a different request
+     *
+     * @param message a user friendly message
+     */
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -1,33 +1,35 @@
 package lin.cs151.reservationManager;
 
 import lin.cs151.reservationData.Reservation;
-import lin.cs151.fileManagement.ReservationFileManagement;
+import lin.cs151.theaterReservationAvailability.Auditorium;
 import lin.cs151.theaterReservationAvailability.MovieTimeSlot;
 import lin.cs151.theaterReservationAvailability.SeatDoesNotExistException;
 import lin.cs151.theaterReservationAvailability.SeatOverBookException;
-import lin.cs151.ticketCost.ReservationPriceCalculator;
+import lin.cs151.theaterReservationAvailability.ShowtimeCalendar;
+import lin.cs151.theaterReservationAvailability.WaitlistEntry;
 import lin.cs151.reservationData.ReservationTotalCostBreakDown;
 import lin.cs151.user.management.User;
 
+import java.io.PrintStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.Scanner;
 
 /**
- * Manages all reservations while system is running in memory
+ * Lets a user at the terminal make, view and cancel reservations. All reservations are kept and changed by a
+ * {@link ReservationService reservation service}; this class only prompts the user and prints the results.
  *
  * @author Raymond Lin
  */
 public class ReservationManager {
 
     Scanner in;
+    PrintStream out;
 
-    private MovieTimeSlot movieTimeSlot;
-    private List<Reservation> reservationsInSession;
-
-    private List<Reservation> reservationsMadePreviously;
-    private int numberOfReservationsModified;
+    private ReservationService reservationService;
 
     /**
      * Creates new instance of the Reservation manaager
@@ -35,117 +37,87 @@ public class ReservationManager {
      * @param in the Scanner to use
      */
     public ReservationManager(Scanner in) {
-        this.in = in;
-        // load movie time slots
-        movieTimeSlot = new MovieTimeSlot();
-        reservationsInSession = new ArrayList<>();
-        reservationsMadePreviously = new ArrayList<>();
-        numberOfReservationsModified = 0;
-        loadFileReservations();
+        this(in, new ReservationService());
     }
 
     /**
-     * Loads reservations from {@link ReservationFileManagement#readReservationFile()} to memory
+     * Creates new instance of the Reservation manager on top of a reservation service
+     *
+     * @param in                 the Scanner to use
+     * @param reservationService the {@link ReservationService reservation service} holding all reservations
      */
-    private void loadFileReservations() {
-        ReservationFileManagement readReservation = new ReservationFileManagement();
-        reservationsMadePreviously.addAll(readReservation.readReservationFile());
-        loadPreviouslyReservedReservations();
+    public ReservationManager(Scanner in, ReservationService reservationService) {
+        this(in, System.out, reservationService);
     }
 
     /**
-     * Updates seat availability dictated by {@link lin.cs151.theaterReservationAvailability.SectionSeat SectionSeat} and {@link MovieTimeSlot} using data from file
+     * Creates new instance of the Reservation manager for one terminal session on top of a shared reservation service
+     *
+     * @param in                 the Scanner to use
+     * @param out                where to print prompts and results for the user
+     * @param reservationService the {@link ReservationService reservation service} holding all reservations
      */
-    public void loadPreviouslyReservedReservations() {
-        for (Reservation r : reservationsMadePreviously) {
-            movieTimeSlot.updateWithFile(r);
-        }
+    public ReservationManager(Scanner in, PrintStream out, ReservationService reservationService) {
+        this.in = in;
+        this.out = out;
+        this.reservationService = reservationService;
     }
 
     /**
-     * Creates a new {@link Reservation reservation}
+     * Gets the {@link ReservationService reservation service} holding all reservations
      *
-     * @param user             {@link User user} to associate reservation with
-     * @param selectedTimeSlot {@link MovieTimeSlot} to associate reservation with
+     * @return the reservation service
      */
-    public void createReservation(User user, LocalDateTime selectedTimeSlot) {
-        Reservation newReservation = new Reservation(user.getUsername(), selectedTimeSlot);
-        getSeatsToReserveForNewReservation(newReservation);
-        if (newReservation.getTotalSeatsReserved() != 0) {
-            reservationsInSession.add(newReservation);
-        }
+    public ReservationService getReservationService() {
+        return reservationService;
     }
 
     /**
-     * Compiles all {@link Reservation reservations} in reservation manager as a list
+     * Gets the {@link MovieTimeSlot show times} of the auditorium a {@link Reservation reservation} is for
      *
-     * @return a list of {@link Reservation reservations} in reservation manager
+     * @param reservation the {@link Reservation reservation} to route
+     * @return the show times of the reservation's auditorium
+     * @throws SeatDoesNotExistException if the reservation's auditorium is no longer listed
      */
-    public List<Reservation> compileAllReservation() {
-        List<Reservation> compileAllReservations = new ArrayList<>();
-        if (!reservationsInSession.isEmpty()) {
-            compileAllReservations.addAll(reservationsInSession);
-        }
-        if (!reservationsMadePreviously.isEmpty()) {
-            compileAllReservations.addAll(reservationsMadePreviously);
-        }
-        return compileAllReservations;
+    private MovieTimeSlot getMovieTimeSlot(Reservation reservation) throws SeatDoesNotExistException {
+        return reservationService.getMovieTimeSlot(reservation.getAuditorium());
     }
 
     /**
-     * Compiles all {@link Reservation reservations} from file by a {@link User user}
+     * Creates a new {@link Reservation reservation} in the first auditorium
      *
-     * @param user {@link User user} to search for reservations for
-     * @return a list of {@link Reservation reservations} created by {@link User user} from file
+     * @param user             {@link User user} to associate reservation with
+     * @param selectedTimeSlot {@link MovieTimeSlot} to associate reservation with
      */
-    private List<Reservation> compilePreviousUserReservations(User user) {
-        List<Reservation> userReservations = new ArrayList<>();
-        for (Reservation x : reservationsMadePreviously) {
-            if (user.getUsername().compareTo(x.getUsername()) == 0) {
-                userReservations.add(x);
-            }
-        }
-        return userReservations;
+    public void createReservation(User user, LocalDateTime selectedTimeSlot) {
+        createReservation(user, reservationService.getAuditorium(null).getId(), selectedTimeSlot);
     }
 
     /**
-     * Compiles all {@link Reservation reservations} created by {@link User user}
+     * Creates a new {@link Reservation reservation}
      *
-     * @param user {@link User user} to search for reservations for
-     * @return a list of all {@link Reservation reservations} created by {@link User user}
+     * @param user             {@link User user} to associate reservation with
+     * @param auditorium       the id of the {@link Auditorium auditorium} to associate reservation with
+     * @param selectedTimeSlot {@link MovieTimeSlot} to associate reservation with
      */
-    public Set<Reservation> compileUserReservation(User user) {
-        List<Reservation> compileAllReservations = compileAllReservation();
-        Set<Reservation> userReservations = new TreeSet<>();
-        int number = 0;
-        for (Reservation x : compileAllReservations) {
-            if (user.getUsername().compareTo(x.getUsername()) == 0) {
-                if (x.getConfirmationNumber().compareTo("Reservation not Confirmed") == 0) {
-                    // if unlikely event that two unconfirmed reservations have same date, generate a temporary confirmation number
-                    // to make it unique
-                    x.setTempConfirmationNumber("temp-" + number);
-                }
-                userReservations.add(x);
-            }
-            number++;
+    public void createReservation(User user, String auditorium, LocalDateTime selectedTimeSlot) {
+        Reservation newReservation;
+        try {
+            newReservation = reservationService.createReservation(user.getUsername(), auditorium, selectedTimeSlot);
+        } catch (SeatDoesNotExistException e) {
+            out.println(e.getMessage());
+            return;
         }
-        return userReservations;
+        getSeatsToReserveForNewReservation(newReservation);
     }
 
     /**
-     * Compile all newly created {@link Reservation reservations} by {@link User user}
+     * Compiles all {@link Reservation reservations} in reservation manager as a list
      *
-     * @param user {@link User user} to search all newly created reservations by
-     * @return a list of all newly created {@link Reservation reservations} by {@link User user}
+     * @return a list of {@link Reservation reservations} in reservation manager
      */
-    private List<Reservation> compileUserInSessionReservation(User user) {
-        List<Reservation> userInSessionReservations = new ArrayList<>();
-        for (Reservation r : reservationsInSession) {
-            if (user.getUsername().compareTo(r.getUsername()) == 0) {
-                userInSessionReservations.add(r);
-            }
-        }
-        return userInSessionReservations;
+    public List<Reservation> compileAllReservation() {
+        return reservationService.compileAllReservation();
     }
 
     /**
@@ -155,7 +127,7 @@ public class ReservationManager {
      * @return a list of {@link Reservation reservations} sorted by {@link MovieTimeSlot}
      */
     public String viewReservations(User user) {
-        Set<Reservation> userReservation = compileUserReservation(user);
+        Set<Reservation> userReservation = reservationService.listReservations(user.getUsername());
         StringBuilder builder = new StringBuilder();
         String username = user.getUsername();
         builder.append("Reservations for user: ");
@@ -184,7 +156,11 @@ public class ReservationManager {
             builder.append(i);
             builder.append(")");
             builder.append(" ");
-            builder.append(r.getMovieTimeSlot().format(formatter)).append("\n");
+            builder.append(r.getMovieTimeSlot().format(formatter));
+            if (reservationService.getAuditoriums().size() > 1) {
+                builder.append(" ").append(reservationService.getAuditorium(r.getAuditorium()));
+            }
+            builder.append("\n");
             i++;
         }
         return builder.toString();
@@ -209,11 +185,11 @@ public class ReservationManager {
      * @param user {@link User user} cancelling a {@link Reservation reservation}
      */
     public void cancelReservation(User user) {
-        System.out.println("Modifying/Cancelling Reservation");
-        Set<Reservation> userReservation = compileUserReservation(user);
-        System.out.println(listUserReservationTimeSlot(userReservation));
-        System.out.println("Type \"done\" to exit.");
-        System.out.print("Select show date\\time to modify: ");
+        out.println("Modifying/Cancelling Reservation");
+        Set<Reservation> userReservation = reservationService.listReservations(user.getUsername());
+        out.println(listUserReservationTimeSlot(userReservation));
+        out.println("Type \"done\" to exit.");
+        out.print("Select show date\\time to modify: ");
         int selection;
         if (!in.hasNextInt()) {
             String select = in.nextLine();
@@ -225,60 +201,29 @@ public class ReservationManager {
             do {
                 if (modifyReservation.getSeatIDsAsArray().isEmpty()) {
                     // if all seats canceled, get out of cancel mode
-                    System.out.println("All seats cancelled. Exiting cancel mode.");
+                    out.println("All seats cancelled. Exiting cancel mode.");
                     break;
                 }
                 // if not all seats were canceled allow user to cancel more
-                System.out.println(viewSeatsReserved(modifyReservation));
-                System.out.print("Selection: ");
+                long version = modifyReservation.getVersion();
+                out.println(viewSeatsReserved(modifyReservation));
+                out.print("Selection: ");
                 String select = in.nextLine();
                 if (select.compareToIgnoreCase("done") == 0) {
                     // if user says there done, exit cancel mode
                     break;
                 } else {
-                    String[] seatsSelected = select.split(", ");
-                    String seatsValidated = validateCancelSeatSelection(seatsSelected, modifyReservation);
-                    reserveSeats(modifyReservation, seatsValidated, ReservationManagerMode.CANCEL);
+                    try {
+                        // rejected if someone else changed the reservation while the user was choosing
+                        reservationService.cancelSeats(modifyReservation, select, version);
+                    } catch (SeatDoesNotExistException | SeatOverBookException | StaleReservationException | ReservationNotSavedException e) {
+                        printError(e);
+                    }
                 }
             } while (true);
-            relocateReservationToBeModified(modifyReservation);
-        }
-    }
-
-    /**
-     * Moves a previously made reservation to another List of {@link Reservation reservations} for newly created reservations
-     *
-     * @param reservation {@link Reservation reservation} to move
-     */
-    private void relocateReservationToBeModified(Reservation reservation) {
-        if (reservationsMadePreviously.contains(reservation) && !reservationsInSession.contains(reservation)) {
-            reservationsMadePreviously.remove(reservation);
-            reservationsInSession.add(reservation);
-            numberOfReservationsModified++;
         }
     }
 
-    /**
-     * Checks if seats being removed exist in {@link Reservation reservation}
-     *
-     * @param seatsToCancel     a list of seat numbers requested to be cancelled
-     * @param modifyReservation the reservation to check against
-     * @return a String of seats numbers authorized to be removed
-     */
-    private String validateCancelSeatSelection(String[] seatsToCancel, Reservation modifyReservation) {
-        ArrayList<String> seatsValidatedToCancel = new ArrayList<>();
-        for (String s : seatsToCancel) {
-            if (modifyReservation.checkSeatIDPresent(s)) {
-                seatsValidatedToCancel.add(s);
-            }
-        }
-        StringBuilder builder = new StringBuilder();
-        for (String s : seatsValidatedToCancel) {
-            builder.append(s).append(", ");
-        }
-        return builder.toString();
-    }
-
     /**
      * Gets all seat numbers reserved in {@link Reservation reservation} with user prompt
      *
@@ -300,18 +245,37 @@ public class ReservationManager {
      * @return a String containing information, including price breakdown held by {@link ReservationTotalCostBreakDown}, about all {@link Reservation reservations} created by a {@link User user}
      */
     private String viewReservationReceipt(User user) {
-        List<Reservation> userInSessionReservations = compileUserInSessionReservation(user);
+        List<Reservation> userInSessionReservations = reservationService.listReservationsInSession(user.getUsername());
         StringBuilder builder = new StringBuilder();
         String reservationSeparator = "---------------------------------------\n";
         // prints out all the newly confirmed reservations
         for (Reservation r : userInSessionReservations) {
-            generateConfirmationCode(r, user);
+            try {
+                if (!reservationService.confirmReservation(r)) {
+                    builder.append("Still on the waitlist for ").append(r.getMovieTimeSlot().format(DateTimeFormatter.ofPattern("MM-dd-yyyy HH:mm"))).append("\n");
+                    continue;
+                }
+            } catch (SeatOverBookException e) {
+                builder.append(e.getMessage());
+                if (r.getTotalSeatsReserved() == 0) {
+                    // every held seat was lost, nothing left to confirm
+                    continue;
+                }
+            } catch (ReservationNotSavedException e) {
+                // the reservation is confirmed, so its receipt still follows
+                builder.append(e.getMessage()).append("\n");
+            }
             builder.append(reservationSeparator);
             builder.append("Receipt for Reservation: \n");
+            if (reservationService.getAuditoriums().size() > 1) {
+                builder.append(reservationService.getAuditorium(r.getAuditorium())).append("\n");
+            }
             builder.append(r.toString());
-            ReservationPriceCalculator calculator = new ReservationPriceCalculator(r);
-            ReservationTotalCostBreakDown breakDown = calculator.calculateTotalPrice();
-            builder.append(breakDown).append("\n");
+            try {
+                builder.append(reservationService.quote(r)).append("\n");
+            } catch (SeatDoesNotExistException e) {
+                builder.append(e.getMessage()).append("\n");
+            }
             builder.append(reservationSeparator);
         }
         return builder.toString();
@@ -323,45 +287,77 @@ public class ReservationManager {
      * @param user {@link User user} to log off
      */
     public void exit(User user) {
-        System.out.println(viewReservationReceipt(user));
-        System.out.println("Signing out user: " + user.getUsername());
+        out.println(viewReservationReceipt(user));
+        out.println("Signing out user: " + user.getUsername());
     }
 
     /**
-     * Prompts user to choose new time slot managed by {@link MovieTimeSlot}
+     * Prompts user to choose an {@link Auditorium auditorium}. If the theater only has one, it is chosen without asking.
      *
-     * @return a {@link LocalDateTime} that {@link User user} has chosen
+     * @return the {@link Auditorium auditorium} that {@link User user} has chosen, or null if {@link User user} is done
      */
-    private LocalDateTime chooseNewTimeSlot() {
-        System.out.println("Please Choose Movie Time Slot by using the number listed on the left: ");
-        System.out.println(movieTimeSlot.listAvailableTimeSlots());
-        System.out.println("If you are done, type in \"Done\".");
-        System.out.print("Selection: ");
-        int selection;
-        if (in.hasNextInt()) {
-            selection = in.nextInt();
-        } else {
+    private Auditorium chooseAuditorium() {
+        List<Auditorium> auditoriumList = reservationService.getAuditoriums();
+        if (auditoriumList.size() == 1) {
+            return auditoriumList.get(0);
+        }
+        out.println("Please Choose Auditorium by using the number listed on the left: ");
+        for (int i = 0; i < auditoriumList.size(); i++) {
+            out.println("(" + (i + 1) + ") " + auditoriumList.get(i));
+        }
+        out.println("If you are done, type in \"Done\".");
+        out.print("Selection: ");
+        if (!in.hasNextInt()) {
             in.nextLine();
             return null;
         }
+        int selection = in.nextInt();
         in.nextLine(); // sanitize input buffer
-        return movieTimeSlot.getMovieTimeSlot(selection);
+        if (selection < 1 || selection > auditoriumList.size()) {
+            return null;
+        }
+        return auditoriumList.get(selection - 1);
     }
 
     /**
-     * Allows an unconfirmed {@link Reservation reservation} to be confirmed and generates new confirmation code for that {@link Reservation reservation}
+     * Prompts user to choose new time slot managed by {@link MovieTimeSlot}
      *
-     * @param newReservation {@link Reservation reservation} to be confirmed
-     * @param user           {@link User user} confirming reservation
+     * @param movieTimeSlot the show times of the chosen {@link Auditorium auditorium}
+     * @return a {@link LocalDateTime} that {@link User user} has chosen, or null if {@link User user} is done
      */
-    private void generateConfirmationCode(Reservation newReservation, User user) {
-        if (newReservation.getConfirmationNumber().compareTo("Reservation not Confirmed") == 0) {
-            List<Reservation> temp = compilePreviousUserReservations(user);
-            int size = temp.size() + numberOfReservationsModified + 1;
-            newReservation.confirmReservation(user.getUsername() + "-" + size);
-            reservationsMadePreviously.add(newReservation);
-            reservationsInSession.remove(newReservation);
+    private LocalDateTime chooseNewTimeSlot(MovieTimeSlot movieTimeSlot) {
+        int page = 1;
+        int selection;
+        ShowtimeCalendar listed;
+        while (true) {
+            // the number chosen is looked up in the show times printed, even if past ones are dropped in the meantime
+            listed = movieTimeSlot.getShowtimeCalendar();
+            out.println("Please Choose Movie Time Slot by using the number listed on the left: ");
+            out.println(movieTimeSlot.listAvailableTimeSlots(listed, page));
+            if (movieTimeSlot.getNumberOfTimeSlotPages() > 1) {
+                out.println("Type in \"Next\" or \"Previous\" to change pages, or a date (MM-dd-yyyy) to jump to it.");
+            }
+            out.println("If you are done, type in \"Done\".");
+            out.print("Selection: ");
+            if (in.hasNextInt()) {
+                selection = in.nextInt();
+                in.nextLine(); // sanitize input buffer
+                break;
+            }
+            String select = in.nextLine().trim();
+            if (select.compareToIgnoreCase("next") == 0) {
+                page = Math.min(page + 1, movieTimeSlot.getNumberOfTimeSlotPages());
+            } else if (select.compareToIgnoreCase("previous") == 0) {
+                page = Math.max(page - 1, 1);
+            } else {
+                try {
+                    page = movieTimeSlot.getTimeSlotPage(LocalDate.parse(select, DateTimeFormatter.ofPattern("MM-dd-yyyy")));
+                } catch (DateTimeParseException e) {
+                    return null;
+                }
+            }
         }
+        return movieTimeSlot.getMovieTimeSlot(listed, selection);
     }
 
     /**
@@ -371,16 +367,24 @@ public class ReservationManager {
      */
     public void createNewReservation(User user) {
         do {
-            System.out.println("Beginning New Reservation: ");
-            // begin prompting for time slot
-            LocalDateTime selectedMovieTimeSlot = chooseNewTimeSlot();
+            out.println("Beginning New Reservation: ");
+            // begin prompting for auditorium and time slot
+            Auditorium selectedAuditorium = chooseAuditorium();
+            LocalDateTime selectedMovieTimeSlot = null;
+            if (selectedAuditorium != null) {
+                try {
+                    selectedMovieTimeSlot = chooseNewTimeSlot(reservationService.getMovieTimeSlot(selectedAuditorium.getId()));
+                } catch (SeatDoesNotExistException e) {
+                    out.println(e.getMessage());
+                }
+            }
             if (selectedMovieTimeSlot == null) {
                 // if user does not select show time, have system cancel reservation process
-                System.out.println("Cancelled Reservation Process. Exiting now.");
+                out.println("Cancelled Reservation Process. Exiting now.");
                 break;
             }
-            createReservation(user, selectedMovieTimeSlot);
-            System.out.println("Reservation process completed. Would you like to make another one? (yes/no)");
+            createReservation(user, selectedAuditorium.getId(), selectedMovieTimeSlot);
+            out.println("Reservation process completed. Would you like to make another one? (yes/no)");
             String select = in.nextLine();
             // repeat reservation process if user selects yes, otherwise exits
             if (select.compareToIgnoreCase("yes") != 0) {
@@ -390,21 +394,77 @@ public class ReservationManager {
     }
 
     /**
-     * Starts process to reserve certain seats
+     * Starts process to hold certain seats
      *
-     * @param reservation {@link Reservation reservation} reserved seats will be associated with
-     * @param seats       a String containing the seat numbers to be reserved
-     * @param mode        determines how seats reservation status be updated in {@link lin.cs151.theaterReservationAvailability.SectionSeat SectionSeat}
+     * @param reservation {@link Reservation reservation} held seats will be associated with
+     * @param seats       a String containing the seat numbers to be held
      */
-    private void reserveSeats(Reservation reservation, String seats, ReservationManagerMode mode) {
+    private void holdSeats(Reservation reservation, String seats) {
         try {
-            movieTimeSlot.reserveSeats(reservation.getMovieTimeSlot(), seats, reservation, mode);
+            reservationService.holdSeats(reservation, seats);
         } catch (SeatDoesNotExistException | SeatOverBookException e) {
-            // if an error occurs, have user press a key to continue on
-            System.out.println("Error occurred: \n");
-            System.out.println(e.toString());
-            System.out.println("Press any key to continue reservation.");
-            in.nextLine();
+            printError(e);
+        }
+    }
+
+    /**
+     * Tells the user about an error and has them press a key to continue on
+     *
+     * @param e the error that occurred
+     */
+    private void printError(Exception e) {
+        out.println("Error occurred: \n");
+        out.println(e.toString());
+        out.println("Press any key to continue reservation.");
+        in.nextLine();
+    }
+
+    /**
+     * Holds the best block of side by side seats found by {@link MovieTimeSlot#findBestAvailableSeats(LocalDateTime, int)}
+     *
+     * @param reservation {@link Reservation reservation} held seats will be associated with
+     * @param partySize   a String containing the number of seats needed together
+     */
+    private void reserveBestAvailableSeats(Reservation reservation, String partySize) {
+        int numberOfSeats;
+        try {
+            numberOfSeats = Integer.parseInt(partySize);
+        } catch (NumberFormatException e) {
+            out.println("Please type the number of seats. For Example: best 6");
+            return;
+        }
+        try {
+            String seats = reservationService.holdBestAvailableSeats(reservation, numberOfSeats);
+            out.println("Seats picked: " + seats);
+        } catch (SeatOverBookException | SeatDoesNotExistException e) {
+            out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a {@link Reservation reservation} to the waitlist of its show time. Seats are held for it automatically once
+     * enough seats together are released.
+     *
+     * @param reservation {@link Reservation reservation} held seats will be associated with
+     * @param partySize   a String containing the number of seats needed together
+     */
+    private void joinWaitlist(Reservation reservation, String partySize) {
+        int numberOfSeats;
+        try {
+            numberOfSeats = Integer.parseInt(partySize);
+        } catch (NumberFormatException e) {
+            out.println("Please type the number of seats. For Example: wait 4");
+            return;
+        }
+        try {
+            WaitlistEntry entry = reservationService.joinWaitlist(reservation, numberOfSeats, null);
+            if (entry.isWaiting()) {
+                out.println("Added to the waitlist for " + numberOfSeats + " seats together. Seats found for you are held for " + getMovieTimeSlot(reservation).getSeatHoldMinutes() + " minutes and are reserved when you sign out.");
+            } else {
+                out.println("Seats were available right away and are now held for you.");
+            }
+        } catch (SeatDoesNotExistException e) {
+            out.println(e.getMessage());
         }
     }
 
@@ -414,21 +474,35 @@ public class ReservationManager {
      * @param reservation the {@link Reservation reservation} being to have newly reserved seats associated with
      */
     private void getSeatsToReserveForNewReservation(Reservation reservation) {
+        MovieTimeSlot movieTimeSlot;
+        try {
+            movieTimeSlot = getMovieTimeSlot(reservation);
+        } catch (SeatDoesNotExistException e) {
+            out.println(e.getMessage());
+            return;
+        }
         // show seat availability
         // prompt for seat id
         do {
             // user is prompted to pick seats until user says there done
-            System.out.println(movieTimeSlot.viewAvailableSeats(reservation.getMovieTimeSlot()));
-            System.out.println("Pick your seats. Type seats with commas and spaces exactly as shown. ");
-            System.out.println("For Example: eb66, eb67, eb68, eb69, eb70, eb71, eb72");
-            System.out.println("To Exit Seat Selection, Type \"Done\".");
-            System.out.print("Seat Selection: ");
+            out.println(movieTimeSlot.viewAvailableSeats(reservation.getMovieTimeSlot()));
+            out.println("Pick your seats. Type seats with commas and spaces exactly as shown. ");
+            out.println("For Example: eb66, eb67, eb68, eb69, eb70, eb71, eb72");
+            out.println("To Have Seats Picked Together For You, Type \"Best\" and the number of seats. For Example: best 6");
+            out.println("If There Are Not Enough Seats, Type \"Wait\" and the number of seats to join the waitlist. For Example: wait 4");
+            out.println("Selected seats are held for " + movieTimeSlot.getSeatHoldMinutes() + " minutes and are reserved when you sign out.");
+            out.println("To Exit Seat Selection, Type \"Done\".");
+            out.print("Seat Selection: ");
             String input = in.nextLine();
             if (input.compareToIgnoreCase("done") == 0) {
                 // user is done reserving seats, exit loop
                 break;
+            } else if (input.toLowerCase().startsWith("best ")) {
+                reserveBestAvailableSeats(reservation, input.substring(5).trim());
+            } else if (input.toLowerCase().startsWith("wait ")) {
+                joinWaitlist(reservation, input.substring(5).trim());
             } else {
-                reserveSeats(reservation, input, ReservationManagerMode.RESERVE);
+                holdSeats(reservation, input);
             }
         } while (true);
     }
@@ -1,10 +1,10 @@
 package lin.cs151.reservationManager;
 
 /**
- * Three modes that the {@link ReservationManager} can be in
+ * Four modes that the {@link ReservationManager} can be in
  *
  * @author Raymond Lin
  */
 public enum ReservationManagerMode {
-    RESERVE, LOAD, CANCEL
+    RESERVE, LOAD, CANCEL, HOLD
 }
@@ -0,0 +1,19 @@
+package lin.cs151.reservationManager;
+
+/**
+ * Exception which is thrown when no {@link lin.cs151.reservationData.Reservation reservation} has a requested
+ * confirmation code.
+ *
+ * @author Raymond Lin
+ */
+public class ReservationNotFoundException extends Exception {
+
+    /**
+     * Creates a new exception when a confirmation code does not belong to any reservation
+     *
+     * @param message a user friendly message
+     */
+    public ReservationNotFoundException(String message) {
+        super(message);
+    }
+}
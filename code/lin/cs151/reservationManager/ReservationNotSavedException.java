@@ -0,0 +1,20 @@
+package lin.cs151.reservationManager;
+
+/**
+ * Exception which is thrown when a change to a {@link lin.cs151.reservationData.Reservation reservation} was made but
+ * could not be saved to file, so it would be lost if the system stopped before the reservations are saved again.
+ *
+ * @author Raymond Lin
+ */
+public class ReservationNotSavedException extends Exception {
+
+    /**
+     * Creates a new exception when a change to a reservation could not be saved to file
+     *
+     * @param message a user friendly message
+     * @param cause   the reason the change could not be saved
+     */
+    public ReservationNotSavedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
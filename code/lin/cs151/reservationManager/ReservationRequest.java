@@ -0,0 +1,103 @@
+package lin.cs151.reservationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * A request to reserve seats, as submitted to {@link ReservationService#reserve(ReservationRequest)} or in a batch to
+ * {@link ReservationService#reserveBatch(java.util.List)}
+ *
+ * @author Raymond Lin
+ */
+public class ReservationRequest {
+
+    private String username;
+    private String auditorium;
+    private LocalDateTime movieTimeSlot;
+    private String seats;
+    private String idempotencyKey;
+
+    /**
+     * Creates a new request to reserve seats
+     *
+     * @param username      the username of the user the seats are reserved for
+     * @param auditorium    the id of the {@link lin.cs151.theaterReservationAvailability.Auditorium auditorium}, or null for the first auditorium
+     * @param movieTimeSlot the show time to reserve seats for
+     * @param seats         the seat numbers to reserve, separated by commas
+     */
+    public ReservationRequest(String username, String auditorium, LocalDateTime movieTimeSlot, String seats) {
+        this(username, auditorium, movieTimeSlot, seats, null);
+    }
+
+    /**
+     * Creates a new request to reserve seats that can safely be sent again. A request with the same idempotency key
+     * as an earlier one is not reserved again; it gets the outcome of the earlier request.
+     *
+     * @param username       the username of the user the seats are reserved for
+     * @param auditorium     the id of the {@link lin.cs151.theaterReservationAvailability.Auditorium auditorium}, or null for the first auditorium
+     * @param movieTimeSlot  the show time to reserve seats for
+     * @param seats          the seat numbers to reserve, separated by commas
+     * @param idempotencyKey a key the client chose for this request and never uses for another one, or null
+     */
+    public ReservationRequest(String username, String auditorium, LocalDateTime movieTimeSlot, String seats, String idempotencyKey) {
+        this.username = username;
+        this.auditorium = auditorium;
+        this.movieTimeSlot = movieTimeSlot;
+        this.seats = seats;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    /**
+     * Gets the username of the user the seats are reserved for
+     *
+     * @return the username
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets the id of the auditorium
+     *
+     * @return the id of the auditorium, or null for the first auditorium
+     */
+    public String getAuditorium() {
+        return auditorium;
+    }
+
+    /**
+     * Gets the show time to reserve seats for
+     *
+     * @return the show time
+     */
+    public LocalDateTime getMovieTimeSlot() {
+        return movieTimeSlot;
+    }
+
+    /**
+     * Gets the seat numbers to reserve
+     *
+     * @return the seat numbers, separated by commas
+     */
+    public String getSeats() {
+        return seats;
+    }
+
+    /**
+     * Gets the idempotency key of the request
+     *
+     * @return the idempotency key, or null if the request is not deduplicated
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    /**
+     * Describes what the request asks for, to tell a request sent again from a different request with the same
+     * idempotency key
+     *
+     * @return the fields of the request other than its idempotency key
+     */
+    String describe() {
+        return username + "\t" + auditorium + "\t" + movieTimeSlot + "\t" + seats;
+    }
+}
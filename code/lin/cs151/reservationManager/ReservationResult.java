@@ -0,0 +1,68 @@
+package lin.cs151.reservationManager;
+
+import lin.cs151.reservationData.Reservation;
+
+/**
+ * The outcome of one {@link ReservationRequest request}: either the confirmed
+ * {@link Reservation reservation} or the error that kept it from being made. A reservation that was made but could not
+ * be saved to file comes with both.
+ *
+ * @author Raymond Lin
+ */
+public class ReservationResult {
+
+    private ReservationRequest request;
+    private Reservation reservation;
+    private Exception error;
+
+    /**
+     * Creates the outcome of a request
+     *
+     * @param request     the request
+     * @param reservation the confirmed reservation, or null if the seats were not reserved
+     * @param error       the reason the request failed, or null if it succeeded
+     */
+    ReservationResult(ReservationRequest request, Reservation reservation, Exception error) {
+        this.request = request;
+        this.reservation = reservation;
+        this.error = error;
+    }
+
+    /**
+     * Gets the request this is the outcome of
+     *
+     * @return the request
+     */
+    public ReservationRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Checks if the seats were reserved and saved to file
+     *
+     * @return true if the request succeeded
+     */
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    /**
+     * Gets the confirmed {@link Reservation reservation}
+     *
+     * @return the reservation, or null if the seats were not reserved
+     */
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+    /**
+     * Gets the reason the request failed, a {@link lin.cs151.theaterReservationAvailability.SeatOverBookException} or
+     * a {@link lin.cs151.theaterReservationAvailability.SeatDoesNotExistException} with a user friendly message, or a
+     * {@link ReservationNotSavedException} if the seats were reserved but could not be saved to file
+     *
+     * @return the error, or null if the request succeeded
+     */
+    public Exception getError() {
+        return error;
+    }
+}
@@ -0,0 +1,1052 @@
+package lin.cs151.reservationManager;
+
+import lin.cs151.fileManagement.ArchiveFileManagement;
+import lin.cs151.fileManagement.JournalFileManagement;
+import lin.cs151.fileManagement.ReservationFileManagement;
+import lin.cs151.reservationData.Reservation;
+import lin.cs151.reservationData.ReservationTotalCostBreakDown;
+import lin.cs151.theaterReservationAvailability.Auditorium;
+import lin.cs151.theaterReservationAvailability.AuditoriumDirectory;
+import lin.cs151.theaterReservationAvailability.MovieTimeSlot;
+import lin.cs151.theaterReservationAvailability.SeatDoesNotExistException;
+import lin.cs151.theaterReservationAvailability.SeatOverBookException;
+import lin.cs151.theaterReservationAvailability.SeatType;
+import lin.cs151.theaterReservationAvailability.VenueLayout;
+import lin.cs151.theaterReservationAvailability.WaitlistEntry;
+import lin.cs151.ticketCost.ReservationPriceCalculator;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reserves, cancels, lists, prices and confirms reservations without any user interface. Every result is returned and
+ * every problem is reported as a checked exception with a user friendly message, so the service can be driven by the
+ * terminal, by batch jobs or by many clients at once.
+ * Any number of threads may use the service at the same time. Seats are guarded by the show times they belong to and
+ * the lists of reservations by this service. A single {@link Reservation reservation} should only be changed by one
+ * caller at a time.
+ *
+ * @author Raymond Lin
+ */
+public class ReservationService {
+
+    private static final int CONFIRMATION_NODE = 1;
+    private static final int IDEMPOTENCY_KEYS_KEPT = 10000;
+    private static final int IDEMPOTENCY_KEY_MINUTES = 15;
+
+    private AuditoriumDirectory auditoriums;
+    private Map<String, List<Reservation>> reservationsInSession;
+    private Map<String, List<Reservation>> reservationsMadePreviously;
+    private Map<String, Reservation> reservationsByConfirmationNumber;
+    private ConfirmationCodeGenerator confirmationCodes;
+    private ReentrantLock saveLock;
+    private JournalFileManagement journal;
+    private ArchiveFileManagement archive;
+    private IdempotencyCache<ReservationResult> reservationCalls;
+    private IdempotencyCache<List<String>> cancellationCalls;
+    private List<String> loadProblems;
+
+    /**
+     * Creates a new reservation service and loads the reservations saved to file
+     */
+    public ReservationService() {
+        // load auditoriums, their movie time slots are loaded when first used
+        auditoriums = new AuditoriumDirectory();
+        reservationsInSession = new LinkedHashMap<>();
+        reservationsMadePreviously = new LinkedHashMap<>();
+        reservationsByConfirmationNumber = new HashMap<>();
+        confirmationCodes = new ConfirmationCodeGenerator(CONFIRMATION_NODE);
+        saveLock = new ReentrantLock();
+        journal = new JournalFileManagement();
+        archive = new ArchiveFileManagement();
+        reservationCalls = new IdempotencyCache<>(IDEMPOTENCY_KEYS_KEPT, IDEMPOTENCY_KEY_MINUTES * 60 * 1000L);
+        cancellationCalls = new IdempotencyCache<>(IDEMPOTENCY_KEYS_KEPT, IDEMPOTENCY_KEY_MINUTES * 60 * 1000L);
+        loadProblems = new ArrayList<>();
+        loadFileReservations();
+    }
+
+    /**
+     * Loads reservations from {@link ReservationFileManagement#readReservationFile()} to memory, then replays the
+     * changes recorded in the {@link JournalFileManagement journal} since they were saved. Confirmation codes carry on
+     * past every code issued before.
+     */
+    private void loadFileReservations() {
+        ReservationFileManagement readReservation = new ReservationFileManagement();
+        Map<String, Reservation> reservations = new LinkedHashMap<>();
+        for (Reservation r : readReservation.readReservationFile()) {
+            reservations.put(r.getConfirmationNumber(), r);
+        }
+        // carry on past every code issued, even for reservations cancelled or archived since
+        confirmationCodes.skipTo(readReservation.getConfirmationSequence());
+        List<String> replayedCodes = new ArrayList<>();
+        journal.replay(readReservation.getJournalOffset(), reservations, replayedCodes);
+        for (String code : replayedCodes) {
+            confirmationCodes.issued(code);
+        }
+        for (Reservation r : reservations.values()) {
+            addReservation(reservationsMadePreviously, r);
+            reservationsByConfirmationNumber.put(r.getConfirmationNumber(), r);
+            confirmationCodes.issued(r.getConfirmationNumber());
+        }
+        loadPreviouslyReservedReservations();
+    }
+
+    /**
+     * Updates seat availability dictated by {@link lin.cs151.theaterReservationAvailability.SectionSeat SectionSeat} and {@link MovieTimeSlot} using data from file.
+     * A reservation whose seats cannot be taken, for example because another reservation already has them or its show
+     * time is no longer listed, is dropped so its seats are not sold twice, and reported in {@link #getLoadProblems()}.
+     */
+    private void loadPreviouslyReservedReservations() {
+        for (Reservation r : compileReservations(reservationsMadePreviously)) {
+            if (r.getAuditorium() == null) {
+                // reservations made before there were several auditoriums are all for the first one
+                r.setAuditorium(auditoriums.getAuditorium(null).getId());
+            }
+            MovieTimeSlot movieTimeSlot = auditoriums.getMovieTimeSlot(r.getAuditorium());
+            if (movieTimeSlot == null) {
+                removeCancelledReservation(r);
+                loadProblems.add("Reservation " + r.getConfirmationNumber() + " is for an auditorium that is no longer listed and was dropped.");
+                continue;
+            }
+            try {
+                movieTimeSlot.updateWithFile(r);
+            } catch (SeatOverBookException | SeatDoesNotExistException e) {
+                removeCancelledReservation(r);
+                loadProblems.add("Reservation " + r.getConfirmationNumber() + " of " + r.getUsername() + " for "
+                        + r.getMovieTimeSlot() + " with seats " + String.join(", ", r.getSeatIDsAsArray())
+                        + " could not be loaded and was dropped. " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the problems found while loading reservations from file, such as reservations that were dropped because
+     * their seats could not be taken
+     *
+     * @return a read only list of user friendly descriptions of the problems, empty if there were none
+     */
+    public List<String> getLoadProblems() {
+        return Collections.unmodifiableList(loadProblems);
+    }
+
+    /**
+     * Gets every {@link Auditorium auditorium} of the theater
+     *
+     * @return a read only list of the auditoriums, in the order they are listed
+     */
+    public List<Auditorium> getAuditoriums() {
+        return auditoriums.getAuditoriums();
+    }
+
+    /**
+     * Gets an {@link Auditorium auditorium} by its id
+     *
+     * @param auditorium the id of the auditorium, see {@link Auditorium#getId()}, or null for the first auditorium
+     * @return the auditorium, or null if there is no auditorium with that id
+     */
+    public Auditorium getAuditorium(String auditorium) {
+        return auditoriums.getAuditorium(auditorium);
+    }
+
+    /**
+     * Gets the show times of an {@link Auditorium auditorium}, for listing show times and seats
+     *
+     * @param auditorium the id of the auditorium, see {@link Auditorium#getId()}, or null for the first auditorium
+     * @return the show times of the auditorium
+     * @throws SeatDoesNotExistException if there is no auditorium with that id
+     */
+    public MovieTimeSlot getMovieTimeSlot(String auditorium) throws SeatDoesNotExistException {
+        MovieTimeSlot movieTimeSlot = auditoriums.getMovieTimeSlot(auditorium);
+        if (movieTimeSlot == null) {
+            throw new SeatDoesNotExistException("The auditorium you have selected is not listed. Please choose another auditorium.");
+        }
+        return movieTimeSlot;
+    }
+
+    /**
+     * Gets the {@link MovieTimeSlot show times} of the auditorium a {@link Reservation reservation} is for
+     *
+     * @param reservation the {@link Reservation reservation} to route
+     * @return the show times of the reservation's auditorium
+     * @throws SeatDoesNotExistException if the reservation's auditorium is no longer listed
+     */
+    private MovieTimeSlot getMovieTimeSlot(Reservation reservation) throws SeatDoesNotExistException {
+        return getMovieTimeSlot(reservation.getAuditorium());
+    }
+
+    /**
+     * Starts a new {@link Reservation reservation}. The reservation is kept for its user once it holds seats or waits
+     * for them.
+     *
+     * @param username         the username of the user making the reservation
+     * @param auditorium       the id of the {@link Auditorium auditorium}, or null for the first auditorium
+     * @param selectedTimeSlot the show time to reserve seats for
+     * @return the new, unconfirmed {@link Reservation reservation}
+     * @throws SeatDoesNotExistException if the auditorium or the show time is not listed
+     */
+    public Reservation createReservation(String username, String auditorium, LocalDateTime selectedTimeSlot) throws SeatDoesNotExistException {
+        MovieTimeSlot movieTimeSlot = getMovieTimeSlot(auditorium);
+        if (!movieTimeSlot.isListed(selectedTimeSlot)) {
+            throw new SeatDoesNotExistException("The show time you have selected is no longer listed. Please choose another show time.");
+        }
+        return new Reservation(username, auditoriums.getAuditorium(auditorium).getId(), selectedTimeSlot);
+    }
+
+    /**
+     * Holds seats for a {@link Reservation reservation} until it is confirmed. Either every seat is held or none are.
+     *
+     * @param reservation the {@link Reservation reservation} to hold seats for
+     * @param seats       the seat numbers to hold, separated by commas
+     * @throws SeatOverBookException     if a seat is already reserved or held
+     * @throws SeatDoesNotExistException if a seat number does not exist
+     */
+    public void holdSeats(Reservation reservation, String seats) throws SeatOverBookException, SeatDoesNotExistException {
+        getMovieTimeSlot(reservation).reserveSeats(reservation.getMovieTimeSlot(), seats, reservation, ReservationManagerMode.HOLD);
+        keepInSession(reservation);
+    }
+
+    /**
+     * Holds the best block of side by side seats found by {@link MovieTimeSlot#findBestAvailableSeats(LocalDateTime, int)}
+     *
+     * @param reservation the {@link Reservation reservation} to hold seats for
+     * @param partySize   the number of seats needed together
+     * @return the seat numbers held, separated by commas
+     * @throws SeatOverBookException     if there are not enough seats together, or they were taken before they could be held
+     * @throws SeatDoesNotExistException if the show time is no longer listed
+     */
+    public String holdBestAvailableSeats(Reservation reservation, int partySize) throws SeatOverBookException, SeatDoesNotExistException {
+        String seats = getMovieTimeSlot(reservation).findBestAvailableSeats(reservation.getMovieTimeSlot(), partySize);
+        if (seats.isEmpty()) {
+            throw new SeatOverBookException("There are no " + partySize + " seats available together for this show time.");
+        }
+        holdSeats(reservation, seats);
+        return seats;
+    }
+
+    /**
+     * Adds a {@link Reservation reservation} to the waitlist of its show time. Seats are held for it automatically once
+     * enough seats together are released.
+     *
+     * @param reservation the {@link Reservation reservation} to hold seats for
+     * @param partySize   the number of seats needed together
+     * @param seatType    the only seat type to accept, or null to accept any seat type
+     * @return the reservation's place on the waitlist
+     * @throws SeatDoesNotExistException if no section has enough seats to ever seat the party together
+     */
+    public WaitlistEntry joinWaitlist(Reservation reservation, int partySize, SeatType seatType) throws SeatDoesNotExistException {
+        WaitlistEntry entry = getMovieTimeSlot(reservation).joinWaitlist(reservation.getMovieTimeSlot(), reservation, partySize, seatType);
+        keepInSession(reservation);
+        return entry;
+    }
+
+    /**
+     * Cancels some seats of a {@link Reservation reservation}. Seats that are not part of the reservation are ignored.
+     * A reservation left without seats is cancelled altogether.
+     *
+     * @param reservation   the {@link Reservation reservation} to cancel seats from
+     * @param seatsToCancel the seat numbers to cancel, separated by commas
+     * @throws SeatDoesNotExistException if a seat number does not exist
+     * @throws SeatOverBookException     if the seats could not be released
+     * @throws StaleReservationException if someone else is changing the reservation at the same time
+     * @throws ReservationNotSavedException if the change was made but could not be saved to file
+     */
+    public void cancelSeats(Reservation reservation, String seatsToCancel) throws SeatDoesNotExistException, SeatOverBookException, StaleReservationException, ReservationNotSavedException {
+        cancelSeats(reservation, seatsToCancel, reservation.getVersion());
+    }
+
+    /**
+     * Cancels some seats of a {@link Reservation reservation}, unless it was changed since the version the
+     * cancellation is based on, see {@link #cancelSeats(Reservation, String)}
+     *
+     * @param reservation     the {@link Reservation reservation} to cancel seats from
+     * @param seatsToCancel   the seat numbers to cancel, separated by commas
+     * @param expectedVersion the {@link Reservation#getVersion() version} of the reservation the user was shown
+     * @throws SeatDoesNotExistException if a seat number does not exist
+     * @throws SeatOverBookException     if the seats could not be released
+     * @throws StaleReservationException if the reservation was changed since, or is being changed
+     * @throws ReservationNotSavedException if the change was made but could not be saved to file
+     */
+    public void cancelSeats(Reservation reservation, String seatsToCancel, long expectedVersion) throws SeatDoesNotExistException, SeatOverBookException, StaleReservationException, ReservationNotSavedException {
+        startChange(reservation, expectedVersion);
+        try {
+            changeSeats(reservation, seatsToCancel);
+        } finally {
+            reservation.finishChange();
+        }
+    }
+
+    /**
+     * Cancels some seats of a {@link Reservation reservation} the caller has started changing
+     *
+     * @param reservation   the {@link Reservation reservation} to cancel seats from
+     * @param seatsToCancel the seat numbers to cancel, separated by commas
+     * @throws SeatDoesNotExistException if a seat number does not exist
+     * @throws SeatOverBookException     if the seats could not be released
+     * @throws ReservationNotSavedException if the change was made but could not be saved to file
+     */
+    private void changeSeats(Reservation reservation, String seatsToCancel) throws SeatDoesNotExistException, SeatOverBookException, ReservationNotSavedException {
+        String seatsValidated = validateCancelSeatSelection(seatsToCancel.trim().split("\\s*,\\s*"), reservation, getMovieTimeSlot(reservation).getLayout());
+        boolean confirmed = reservation.getConfirmationNumber().compareTo("Reservation not Confirmed") != 0;
+        List<String> seatsCancelled = new ArrayList<>(reservation.getSeatIDsAsArray());
+        getMovieTimeSlot(reservation).reserveSeats(reservation.getMovieTimeSlot(), seatsValidated, reservation, ReservationManagerMode.CANCEL);
+        seatsCancelled.removeAll(reservation.getSeatIDsAsArray());
+        try {
+            if (reservation.getSeatIDsAsArray().isEmpty() && !reservation.isWaitlisted()) {
+                removeCancelledReservation(reservation);
+                if (confirmed) {
+                    journal.cancelled(reservation.getConfirmationNumber());
+                }
+            } else {
+                relocateReservationToBeModified(reservation);
+                if (confirmed && !seatsCancelled.isEmpty()) {
+                    journal.modified(reservation.getConfirmationNumber(), seatsCancelled);
+                }
+            }
+        } catch (IOException e) {
+            throw notSaved(reservation, e);
+        }
+    }
+
+    /**
+     * Gets a confirmed {@link Reservation reservation} by its confirmation code
+     *
+     * @param confirmationNumber the confirmation code of the reservation, for example "1-6CGRK3"
+     * @return the {@link Reservation reservation} with that confirmation code
+     * @throws ReservationNotFoundException if no reservation has that confirmation code
+     */
+    public synchronized Reservation getReservation(String confirmationNumber) throws ReservationNotFoundException {
+        Reservation reservation = reservationsByConfirmationNumber.get(confirmationNumber);
+        if (reservation == null) {
+            throw new ReservationNotFoundException("There is no reservation with confirmation code " + confirmationNumber + ". Please check the code and try again.");
+        }
+        return reservation;
+    }
+
+    /**
+     * Cancels some seats of a confirmed {@link Reservation reservation}, see {@link #cancelSeats(Reservation, String)}
+     *
+     * @param confirmationNumber the confirmation code of the reservation
+     * @param seatsToCancel      the seat numbers to cancel, separated by commas
+     * @throws ReservationNotFoundException if no reservation has that confirmation code
+     * @throws SeatDoesNotExistException    if a seat number does not exist
+     * @throws SeatOverBookException        if the seats could not be released
+     * @throws StaleReservationException     if someone else is changing the reservation at the same time
+     * @throws ReservationNotSavedException if the change was made but could not be saved to file
+     */
+    public void modifyReservation(String confirmationNumber, String seatsToCancel) throws ReservationNotFoundException, SeatDoesNotExistException, SeatOverBookException, StaleReservationException, ReservationNotSavedException {
+        cancelSeats(getReservation(confirmationNumber), seatsToCancel);
+    }
+
+    /**
+     * Cancels some seats of a confirmed {@link Reservation reservation}, unless it was changed since the version the
+     * cancellation is based on, see {@link #cancelSeats(Reservation, String, long)}
+     *
+     * @param confirmationNumber the confirmation code of the reservation
+     * @param seatsToCancel      the seat numbers to cancel, separated by commas
+     * @param expectedVersion    the {@link Reservation#getVersion() version} of the reservation the user was shown
+     * @throws ReservationNotFoundException if no reservation has that confirmation code
+     * @throws SeatDoesNotExistException    if a seat number does not exist
+     * @throws SeatOverBookException        if the seats could not be released
+     * @throws StaleReservationException     if the reservation was changed since, or is being changed
+     * @throws ReservationNotSavedException if the change was made but could not be saved to file
+     */
+    public void modifyReservation(String confirmationNumber, String seatsToCancel, long expectedVersion) throws ReservationNotFoundException, SeatDoesNotExistException, SeatOverBookException, StaleReservationException, ReservationNotSavedException {
+        cancelSeats(getReservation(confirmationNumber), seatsToCancel, expectedVersion);
+    }
+
+    /**
+     * Cancels some seats of a confirmed {@link Reservation reservation} once, see
+     * {@link #modifyReservation(String, String)}. Sending the same idempotency key again with the same confirmation
+     * code and seats does not cancel anything; it gets the outcome of the first call, including the exception it threw.
+     *
+     * @param idempotencyKey     a key the client chose for this call and never uses for another one, or null
+     * @param confirmationNumber the confirmation code of the reservation
+     * @param seatsToCancel      the seat numbers to cancel, separated by commas
+     * @throws ReservationNotFoundException  if no reservation has that confirmation code
+     * @throws SeatDoesNotExistException     if a seat number does not exist
+     * @throws SeatOverBookException         if the seats could not be released
+     * @throws StaleReservationException     if someone else is changing the reservation at the same time
+     * @throws ReservationNotSavedException  if the change was made but could not be saved to file
+     * @throws IdempotencyKeyReusedException if the key was already used for a different call
+     */
+    public void modifyReservationOnce(String idempotencyKey, String confirmationNumber, String seatsToCancel) throws ReservationNotFoundException, SeatDoesNotExistException, SeatOverBookException, StaleReservationException, ReservationNotSavedException, IdempotencyKeyReusedException {
+        await(cancellationCalls.execute(idempotencyKey, "MODIFY\t" + confirmationNumber + "\t" + seatsToCancel.trim(), () -> {
+            modifyReservation(confirmationNumber, seatsToCancel);
+            return null;
+        }));
+    }
+
+    /**
+     * Cancels every seat of a confirmed {@link Reservation reservation} and removes the reservation
+     *
+     * @param confirmationNumber the confirmation code of the reservation
+     * @return the seat numbers that were cancelled, for example to refund them
+     * @throws ReservationNotFoundException if no reservation has that confirmation code
+     * @throws SeatDoesNotExistException    if a seat of the reservation no longer exists
+     * @throws SeatOverBookException        if the seats could not be released
+     * @throws StaleReservationException     if someone else is changing the reservation at the same time
+     * @throws ReservationNotSavedException if the change was made but could not be saved to file
+     */
+    public List<String> cancelReservation(String confirmationNumber) throws ReservationNotFoundException, SeatDoesNotExistException, SeatOverBookException, StaleReservationException, ReservationNotSavedException {
+        return cancelReservation(confirmationNumber, getReservation(confirmationNumber).getVersion());
+    }
+
+    /**
+     * Cancels every seat of a confirmed {@link Reservation reservation} and removes the reservation, unless it was
+     * changed since the version the cancellation is based on
+     *
+     * @param confirmationNumber the confirmation code of the reservation
+     * @param expectedVersion    the {@link Reservation#getVersion() version} of the reservation the user was shown
+     * @return the seat numbers that were cancelled, for example to refund them
+     * @throws ReservationNotFoundException if no reservation has that confirmation code
+     * @throws SeatDoesNotExistException    if a seat of the reservation no longer exists
+     * @throws SeatOverBookException        if the seats could not be released
+     * @throws StaleReservationException     if the reservation was changed since, or is being changed
+     * @throws ReservationNotSavedException if the change was made but could not be saved to file
+     */
+    public List<String> cancelReservation(String confirmationNumber, long expectedVersion) throws ReservationNotFoundException, SeatDoesNotExistException, SeatOverBookException, StaleReservationException, ReservationNotSavedException {
+        Reservation reservation = getReservation(confirmationNumber);
+        startChange(reservation, expectedVersion);
+        try {
+            List<String> seats = new ArrayList<>(reservation.getSeatIDsAsArray());
+            getMovieTimeSlot(reservation).reserveSeats(reservation.getMovieTimeSlot(), String.join(", ", seats), reservation, ReservationManagerMode.CANCEL);
+            removeCancelledReservation(reservation);
+            try {
+                journal.cancelled(confirmationNumber);
+            } catch (IOException e) {
+                throw notSaved(reservation, e);
+            }
+            return seats;
+        } finally {
+            reservation.finishChange();
+        }
+    }
+
+    /**
+     * Creates the exception for a change to a {@link Reservation reservation} that was made but could not be written to
+     * the journal
+     *
+     * @param reservation the changed {@link Reservation reservation}
+     * @param cause       the reason the change could not be written
+     * @return the exception to throw
+     */
+    private ReservationNotSavedException notSaved(Reservation reservation, IOException cause) {
+        return new ReservationNotSavedException("Your changes to reservation " + reservation.getConfirmationNumber() + " were made but could not be saved to file. They may be lost if the system stops before the reservations are saved again.", cause);
+    }
+
+    /**
+     * Starts changing a {@link Reservation reservation}, see {@link Reservation#startChange(long)}
+     *
+     * @param reservation     the {@link Reservation reservation} to change
+     * @param expectedVersion the version of the reservation the change is based on
+     * @throws StaleReservationException if the reservation was changed since, or is being changed
+     */
+    private void startChange(Reservation reservation, long expectedVersion) throws StaleReservationException {
+        if (!reservation.startChange(expectedVersion)) {
+            throw new StaleReservationException("Reservation " + reservation.getConfirmationNumber() + " was changed by someone else in the meantime. Please look at it again and retry.");
+        }
+    }
+
+    /**
+     * Cancels a confirmed {@link Reservation reservation} once, see {@link #cancelReservation(String)}. Sending the
+     * same idempotency key again with the same confirmation code does not throw {@link ReservationNotFoundException}
+     * for the reservation that is gone; it gets the outcome of the first call.
+     *
+     * @param idempotencyKey     a key the client chose for this call and never uses for another one, or null
+     * @param confirmationNumber the confirmation code of the reservation
+     * @return the seat numbers that were cancelled by the first call with this key
+     * @throws ReservationNotFoundException  if no reservation has that confirmation code
+     * @throws SeatDoesNotExistException     if a seat of the reservation no longer exists
+     * @throws SeatOverBookException         if the seats could not be released
+     * @throws StaleReservationException     if someone else is changing the reservation at the same time
+     * @throws ReservationNotSavedException  if the change was made but could not be saved to file
+     * @throws IdempotencyKeyReusedException if the key was already used for a different call
+     */
+    public List<String> cancelReservationOnce(String idempotencyKey, String confirmationNumber) throws ReservationNotFoundException, SeatDoesNotExistException, SeatOverBookException, StaleReservationException, ReservationNotSavedException, IdempotencyKeyReusedException {
+        return await(cancellationCalls.execute(idempotencyKey, "CANCEL\t" + confirmationNumber, () -> cancelReservation(confirmationNumber)));
+    }
+
+    /**
+     * Waits for the outcome of a call made through an {@link IdempotencyCache idempotency cache}
+     *
+     * @param outcome the outcome of the call
+     * @param <T>     the type of the outcome
+     * @return the outcome
+     * @throws ReservationNotFoundException if the call failed because no reservation has a confirmation code
+     * @throws SeatDoesNotExistException    if the call failed because a seat does not exist
+     * @throws SeatOverBookException        if the call failed because a seat is already reserved or could not be released
+     * @throws StaleReservationException     if the call failed because someone else was changing the reservation
+     * @throws ReservationNotSavedException  if the call made its change but could not save it to file
+     * @throws IdempotencyKeyReusedException if the key of the call was already used for a different call
+     */
+    private <T> T await(CompletableFuture<T> outcome) throws ReservationNotFoundException, SeatDoesNotExistException, SeatOverBookException, StaleReservationException, ReservationNotSavedException, IdempotencyKeyReusedException {
+        try {
+            return outcome.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ReservationNotFoundException) {
+                throw (ReservationNotFoundException) e.getCause();
+            } else if (e.getCause() instanceof SeatDoesNotExistException) {
+                throw (SeatDoesNotExistException) e.getCause();
+            } else if (e.getCause() instanceof SeatOverBookException) {
+                throw (SeatOverBookException) e.getCause();
+            } else if (e.getCause() instanceof StaleReservationException) {
+                throw (StaleReservationException) e.getCause();
+            } else if (e.getCause() instanceof ReservationNotSavedException) {
+                throw (ReservationNotSavedException) e.getCause();
+            } else if (e.getCause() instanceof IdempotencyKeyReusedException) {
+                throw (IdempotencyKeyReusedException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Lists all {@link Reservation reservations} of a user, both confirmed and not yet confirmed
+     *
+     * @param username the username to list reservations for
+     * @return the user's {@link Reservation reservations} sorted by show time and confirmation code
+     */
+    public synchronized Set<Reservation> listReservations(String username) {
+        List<Reservation> compileAllReservations = new ArrayList<>(getUserReservations(reservationsInSession, username));
+        compileAllReservations.addAll(getUserReservations(reservationsMadePreviously, username));
+        Set<Reservation> userReservations = new TreeSet<>();
+        int number = 0;
+        for (Reservation x : compileAllReservations) {
+            if (x.getConfirmationNumber().compareTo("Reservation not Confirmed") == 0) {
+                // if unlikely event that two unconfirmed reservations have same date, generate a temporary confirmation number
+                // to make it unique
+                x.setTempConfirmationNumber("temp-" + number);
+            }
+            userReservations.add(x);
+            number++;
+        }
+        return userReservations;
+    }
+
+    /**
+     * Lists the {@link Reservation reservations} a user made or changed since they were last confirmed
+     *
+     * @param username the username to list reservations for
+     * @return a copy of the list of the user's {@link Reservation reservations} waiting to be confirmed
+     */
+    public synchronized List<Reservation> listReservationsInSession(String username) {
+        return new ArrayList<>(getUserReservations(reservationsInSession, username));
+    }
+
+    /**
+     * Prices a {@link Reservation reservation}, including any discounts
+     *
+     * @param reservation the {@link Reservation reservation} to price
+     * @return the price breakdown of the reservation
+     * @throws SeatDoesNotExistException if the reservation's auditorium is no longer listed
+     */
+    public ReservationTotalCostBreakDown quote(Reservation reservation) throws SeatDoesNotExistException {
+        ReservationPriceCalculator calculator = new ReservationPriceCalculator(reservation, getMovieTimeSlot(reservation).getLayout());
+        return calculator.calculateTotalPrice();
+    }
+
+    /**
+     * Confirms a {@link Reservation reservation}. Held seats become reserved, the reservation stops waiting for more
+     * seats and, if it is new, gets a confirmation code. A reservation that is only waiting for seats is left as it is.
+     *
+     * @param reservation the {@link Reservation reservation} to confirm
+     * @return true if the reservation was confirmed, false if it has no seats yet and is still waiting for them
+     * @throws SeatOverBookException         if the hold on some seats expired and they were reserved by someone else.
+     *                                       The remaining seats are confirmed anyway; a reservation left without seats
+     *                                       is dropped.
+     * @throws ReservationNotSavedException if the reservation was confirmed but could not be saved to file
+     */
+    public boolean confirmReservation(Reservation reservation) throws SeatOverBookException, ReservationNotSavedException {
+        if (reservation.getTotalSeatsReserved() == 0 && reservation.isWaitlisted()) {
+            // nothing to confirm yet, seats found later are held for the user like any other held seats
+            return false;
+        }
+        for (WaitlistEntry entry : reservation.getWaitlistEntries()) {
+            // the user keeps the seats they have, so stop waiting for more
+            entry.leave();
+        }
+        try {
+            getMovieTimeSlot(reservation).confirmSeatHolds(reservation);
+        } catch (SeatOverBookException e) {
+            if (reservation.getTotalSeatsReserved() == 0) {
+                // every held seat was lost, nothing left to confirm
+                removeCancelledReservation(reservation);
+            } else {
+                try {
+                    settleReservation(reservation);
+                } catch (ReservationNotSavedException notSaved) {
+                    notSaved.addSuppressed(e);
+                    throw notSaved;
+                }
+            }
+            throw e;
+        } catch (SeatDoesNotExistException e) {
+            // the auditorium is no longer listed, so there are no holds to confirm
+        }
+        settleReservation(reservation);
+        return true;
+    }
+
+    /**
+     * Reserves and confirms one reservation, see {@link #reserveBatch(List)}. A request with the idempotency key of an
+     * earlier request is not reserved again; it gets the result of the earlier request.
+     *
+     * @param request the request to reserve
+     * @return the outcome of the request
+     */
+    public ReservationResult reserve(ReservationRequest request) {
+        return reserveBatch(Collections.singletonList(request)).get(0);
+    }
+
+    /**
+     * Reserves and confirms many reservations at once, for example block bookings or sales made by partners.
+     * Requests are grouped by auditorium and show time, and the seats of each show time are reserved in one go, see
+     * {@link MovieTimeSlot#reserveSeats(LocalDateTime, List, List)}. Every request is reserved completely or not at
+     * all; one failing request does not stop the others. The reservations confirmed by the batch are recorded in the
+     * journal in one write. If that write fails, their results carry a {@link ReservationNotSavedException} along with
+     * the reservation.
+     * A request with the idempotency key of an earlier request, in this batch or before, is not reserved again; it gets
+     * the result of the earlier request once that is known. If the earlier request asked for something else, the
+     * request fails with {@link IdempotencyKeyReusedException}.
+     *
+     * @param requests the requests to reserve, in the order they should be served when they ask for the same seats
+     * @return the outcome of each request, in the same order as the requests
+     */
+    public List<ReservationResult> reserveBatch(List<ReservationRequest> requests) {
+        ReservationResult[] results = new ReservationResult[requests.size()];
+        List<CompletableFuture<ReservationResult>> outcomes = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        Map<Integer, CompletableFuture<ReservationResult>> earlierOutcomes = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String key = requests.get(i).getIdempotencyKey();
+            if (key == null) {
+                continue;
+            }
+            CompletableFuture<ReservationResult> outcome = new CompletableFuture<>();
+            CompletableFuture<ReservationResult> earlier = reservationCalls.putIfAbsent(key, requests.get(i).describe(), outcome);
+            if (earlier == null) {
+                outcomes.set(i, outcome);
+            } else {
+                earlierOutcomes.put(i, earlier);
+            }
+        }
+        try {
+            reserveRequests(requests, results, earlierOutcomes.keySet());
+        } catch (RuntimeException e) {
+            // let the requests be sent again
+            for (int i = 0; i < requests.size(); i++) {
+                if (outcomes.get(i) != null) {
+                    reservationCalls.remove(requests.get(i).getIdempotencyKey(), outcomes.get(i));
+                    outcomes.get(i).completeExceptionally(e);
+                }
+            }
+            throw e;
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            if (outcomes.get(i) != null) {
+                outcomes.get(i).complete(results[i]);
+            }
+        }
+        // only waited for now, an earlier request may be in this very batch
+        for (Map.Entry<Integer, CompletableFuture<ReservationResult>> earlier : earlierOutcomes.entrySet()) {
+            try {
+                results[earlier.getKey()] = earlier.getValue().join();
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof IdempotencyKeyReusedException)) {
+                    throw e;
+                }
+                results[earlier.getKey()] = new ReservationResult(requests.get(earlier.getKey()), null, (IdempotencyKeyReusedException) e.getCause());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Reserves and confirms the requests of a batch, see {@link #reserveBatch(List)}
+     *
+     * @param requests the requests of the batch
+     * @param results  the array to put the outcome of each request in
+     * @param skipped  the positions of requests that were already made earlier and must not be reserved again
+     */
+    private void reserveRequests(List<ReservationRequest> requests, ReservationResult[] results, Set<Integer> skipped) {
+        // requests for the same show time are booked together, show times in order
+        Map<String, TreeMap<LocalDateTime, List<Integer>>> requestsByShowtime = new TreeMap<>();
+        Reservation[] reservations = new Reservation[requests.size()];
+        List<Reservation> confirmed = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (skipped.contains(i)) {
+                continue;
+            }
+            ReservationRequest request = requests.get(i);
+            try {
+                reservations[i] = createReservation(request.getUsername(), request.getAuditorium(), request.getMovieTimeSlot());
+            } catch (SeatDoesNotExistException e) {
+                results[i] = new ReservationResult(request, null, e);
+                continue;
+            }
+            requestsByShowtime.computeIfAbsent(reservations[i].getAuditorium(), k -> new TreeMap<>())
+                    .computeIfAbsent(request.getMovieTimeSlot(), k -> new ArrayList<>()).add(i);
+        }
+        for (Map.Entry<String, TreeMap<LocalDateTime, List<Integer>>> auditorium : requestsByShowtime.entrySet()) {
+            for (Map.Entry<LocalDateTime, List<Integer>> showtime : auditorium.getValue().entrySet()) {
+                List<String> seats = new ArrayList<>();
+                List<Reservation> showtimeReservations = new ArrayList<>();
+                for (int i : showtime.getValue()) {
+                    seats.add(requests.get(i).getSeats());
+                    showtimeReservations.add(reservations[i]);
+                }
+                List<Exception> errors;
+                try {
+                    errors = getMovieTimeSlot(auditorium.getKey()).reserveSeats(showtime.getKey(), seats, showtimeReservations);
+                } catch (SeatDoesNotExistException e) {
+                    errors = Collections.nCopies(seats.size(), e);
+                }
+                for (int k = 0; k < errors.size(); k++) {
+                    int i = showtime.getValue().get(k);
+                    if (errors.get(k) == null) {
+                        generateConfirmationCode(reservations[i]);
+                        confirmed.add(reservations[i]);
+                        results[i] = new ReservationResult(requests.get(i), reservations[i], null);
+                    } else {
+                        results[i] = new ReservationResult(requests.get(i), null, errors.get(k));
+                    }
+                }
+            }
+        }
+        try {
+            journal.reserved(confirmed);
+        } catch (IOException e) {
+            // the seats are reserved anyway, but the caller has to know they may be lost
+            for (int i = 0; i < requests.size(); i++) {
+                if (results[i] != null && results[i].isSuccessful()) {
+                    results[i] = new ReservationResult(requests.get(i), reservations[i], notSaved(reservations[i], e));
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves every confirmed {@link Reservation reservation} to file in one write, as a snapshot of the journal so that
+     * loading only has to replay the changes made after it. Reservations that are not confirmed yet are left out,
+     * since their seats are only held.
+     */
+    public void saveReservations() {
+        saveLock.lock();
+        try {
+            // taken first, changes made while saving are replayed again on top of the snapshot
+            long journalOffset = journal.getOffset();
+            List<Reservation> confirmed = new ArrayList<>();
+            for (Reservation r : compileAllReservation()) {
+                if (r.getConfirmationNumber().compareTo("Reservation not Confirmed") != 0) {
+                    confirmed.add(r);
+                }
+            }
+            new ReservationFileManagement().writeReservation(confirmed, journalOffset, confirmationCodes.getSequence());
+        } finally {
+            saveLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the confirmed {@link Reservation reservations} for show times that start before a horizon into the
+     * {@link ArchiveFileManagement archive}, and stops listing those show times so their seats are dropped from memory.
+     * The archived reservations can still be looked up, see {@link #getArchivedReservation(String)}, but no longer
+     * changed. Reservations being changed by their user are archived the next time, once they are confirmed again; the
+     * seats of their show times are kept in memory until then.
+     *
+     * @param horizon show times that start before this time are archived
+     * @return the number of reservations archived
+     */
+    public int archiveShowtimes(LocalDateTime horizon) {
+        saveLock.lock();
+        try {
+            List<Reservation> archived = removeReservationsBefore(horizon);
+            if (!archived.isEmpty()) {
+                if (!archive.archive(archived)) {
+                    // keep them rather than lose them
+                    for (Reservation r : archived) {
+                        restoreReservation(r);
+                    }
+                    return 0;
+                }
+                // the archived reservations are left out of the snapshot and the journal is replayed from after them
+                saveReservations();
+            }
+            Map<String, Set<LocalDateTime>> inUse = getShowtimesInSessionBefore(horizon);
+            for (Auditorium auditorium : auditoriums.getAuditoriums()) {
+                auditoriums.getMovieTimeSlot(auditorium.getId()).dropPastTimeSlots(horizon, inUse.getOrDefault(auditorium.getId(), Collections.emptySet()));
+            }
+            return archived.size();
+        } finally {
+            saveLock.unlock();
+        }
+    }
+
+    /**
+     * Gets an archived {@link Reservation reservation} by its confirmation code
+     *
+     * @param confirmationNumber the confirmation code of the reservation
+     * @return a read only copy of the archived {@link Reservation reservation}
+     * @throws ReservationNotFoundException if no archived reservation has that confirmation code
+     * @throws IOException                  if part of the archive cannot be read
+     */
+    public Reservation getArchivedReservation(String confirmationNumber) throws ReservationNotFoundException, IOException {
+        List<Reservation> found = archive.search(r -> r.getConfirmationNumber().equals(confirmationNumber));
+        if (found.isEmpty()) {
+            throw new ReservationNotFoundException("There is no past reservation with confirmation code " + confirmationNumber + ". Please check the code and try again.");
+        }
+        return found.get(0);
+    }
+
+    /**
+     * Lists the archived {@link Reservation reservations} of a user
+     *
+     * @param username the username to list reservations for
+     * @return read only copies of the user's archived {@link Reservation reservations}, in the order they were archived
+     * @throws IOException if part of the archive cannot be read, so the list would not be complete
+     */
+    public List<Reservation> listArchivedReservations(String username) throws IOException {
+        return archive.search(r -> r.getUsername().equals(username));
+    }
+
+    /**
+     * Compiles all {@link Reservation reservations} in the service as a list, for saving them to file
+     *
+     * @return a list of {@link Reservation reservations} in the service
+     */
+    public synchronized List<Reservation> compileAllReservation() {
+        List<Reservation> compileAllReservations = compileReservations(reservationsInSession);
+        compileAllReservations.addAll(compileReservations(reservationsMadePreviously));
+        return compileAllReservations;
+    }
+
+    /**
+     * Forgets the confirmed {@link Reservation reservations} for show times that start before a horizon
+     *
+     * @param horizon show times that start before this time are forgotten
+     * @return the {@link Reservation reservations} forgotten
+     */
+    private synchronized List<Reservation> removeReservationsBefore(LocalDateTime horizon) {
+        List<Reservation> removed = new ArrayList<>();
+        for (Reservation r : compileReservations(reservationsMadePreviously)) {
+            if (r.getMovieTimeSlot().isBefore(horizon)) {
+                removeReservation(reservationsMadePreviously, r);
+                reservationsByConfirmationNumber.remove(r.getConfirmationNumber());
+                removed.add(r);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Finds the show times before a horizon that {@link Reservation reservations} being changed by their user still
+     * hold or reserve seats for
+     *
+     * @param horizon show times that start before this time are looked for
+     * @return the show times found, by auditorium
+     */
+    private synchronized Map<String, Set<LocalDateTime>> getShowtimesInSessionBefore(LocalDateTime horizon) {
+        Map<String, Set<LocalDateTime>> showtimes = new HashMap<>();
+        for (Reservation r : compileReservations(reservationsInSession)) {
+            if (r.getMovieTimeSlot().isBefore(horizon)) {
+                showtimes.computeIfAbsent(r.getAuditorium(), k -> new HashSet<>()).add(r.getMovieTimeSlot());
+            }
+        }
+        return showtimes;
+    }
+
+    /**
+     * Puts back a confirmed {@link Reservation reservation} forgotten by {@link #removeReservationsBefore(LocalDateTime)}
+     *
+     * @param reservation the {@link Reservation reservation} to put back
+     */
+    private synchronized void restoreReservation(Reservation reservation) {
+        addReservation(reservationsMadePreviously, reservation);
+        reservationsByConfirmationNumber.put(reservation.getConfirmationNumber(), reservation);
+    }
+
+    /**
+     * Keeps a new {@link Reservation reservation} for its user until it is confirmed
+     *
+     * @param reservation the {@link Reservation reservation} holding or waiting for seats
+     */
+    private synchronized void keepInSession(Reservation reservation) {
+        if (reservation.getConfirmationNumber().compareTo("Reservation not Confirmed") == 0 && !containsReservation(reservationsInSession, reservation)) {
+            addReservation(reservationsInSession, reservation);
+        }
+    }
+
+    /**
+     * Moves a previously made reservation to the reservations waiting to be confirmed
+     *
+     * @param reservation {@link Reservation reservation} to move
+     */
+    private synchronized void relocateReservationToBeModified(Reservation reservation) {
+        if (!containsReservation(reservationsInSession, reservation) && removeReservation(reservationsMadePreviously, reservation)) {
+            addReservation(reservationsInSession, reservation);
+        }
+    }
+
+    /**
+     * Forgets a {@link Reservation reservation} whose seats have all been cancelled, so it is not saved again
+     *
+     * @param reservation the cancelled {@link Reservation reservation}
+     */
+    private synchronized void removeCancelledReservation(Reservation reservation) {
+        for (WaitlistEntry entry : reservation.getWaitlistEntries()) {
+            entry.leave();
+        }
+        removeReservation(reservationsMadePreviously, reservation);
+        removeReservation(reservationsInSession, reservation);
+        reservationsByConfirmationNumber.remove(reservation.getConfirmationNumber());
+    }
+
+    /**
+     * Confirms a {@link Reservation reservation} with {@link #generateConfirmationCode(Reservation)} and records it in
+     * the journal
+     *
+     * @param reservation {@link Reservation reservation} to be confirmed
+     * @throws ReservationNotSavedException if the reservation was confirmed but could not be written to the journal
+     */
+    private void settleReservation(Reservation reservation) throws ReservationNotSavedException {
+        boolean isNew = reservation.getConfirmationNumber().compareTo("Reservation not Confirmed") == 0;
+        generateConfirmationCode(reservation);
+        try {
+            if (isNew) {
+                journal.reserved(reservation);
+            } else {
+                journal.confirmed(reservation);
+            }
+        } catch (IOException e) {
+            throw notSaved(reservation, e);
+        }
+    }
+
+    /**
+     * Allows an unconfirmed {@link Reservation reservation} to be confirmed and generates new confirmation code for that {@link Reservation reservation}.
+     * A modified reservation is settled again under its old confirmation code.
+     *
+     * @param newReservation {@link Reservation reservation} to be confirmed
+     */
+    private synchronized void generateConfirmationCode(Reservation newReservation) {
+        if (newReservation.getConfirmationNumber().compareTo("Reservation not Confirmed") == 0) {
+            String confirmationNumber;
+            do {
+                // an old style code from file, such as admin-1, could look like a new one
+                confirmationNumber = confirmationCodes.next();
+            } while (reservationsByConfirmationNumber.containsKey(confirmationNumber));
+            newReservation.confirmReservation(confirmationNumber);
+            reservationsByConfirmationNumber.put(confirmationNumber, newReservation);
+            addReservation(reservationsMadePreviously, newReservation);
+            removeReservation(reservationsInSession, newReservation);
+        } else if (removeReservation(reservationsInSession, newReservation)) {
+            // a modified reservation keeps its confirmation code
+            addReservation(reservationsMadePreviously, newReservation);
+        }
+    }
+
+    /**
+     * Checks if seats being removed exist in {@link Reservation reservation}. Seat numbers are compared the way they are
+     * stored, so "M5" matches a reserved "m5".
+     *
+     * @param seatsToCancel     a list of seat numbers requested to be cancelled
+     * @param modifyReservation the reservation to check against
+     * @param layout            the seating layout of the reservation's auditorium, to look up the seat numbers in
+     * @return a String of seats numbers authorized to be removed
+     */
+    private String validateCancelSeatSelection(String[] seatsToCancel, Reservation modifyReservation, VenueLayout layout) {
+        ArrayList<String> seatsValidatedToCancel = new ArrayList<>();
+        for (String s : seatsToCancel) {
+            String seatID;
+            try {
+                seatID = layout.parseSeatId(s).toString();
+            } catch (SeatDoesNotExistException e) {
+                // no such seat, so it cannot be part of the reservation either
+                continue;
+            }
+            if (modifyReservation.checkSeatIDPresent(seatID)) {
+                seatsValidatedToCancel.add(seatID);
+            }
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String s : seatsValidatedToCancel) {
+            builder.append(s).append(", ");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Adds a {@link Reservation reservation} to the reservations of its user
+     *
+     * @param reservations reservations grouped by username
+     * @param reservation  the {@link Reservation reservation} to add
+     */
+    private void addReservation(Map<String, List<Reservation>> reservations, Reservation reservation) {
+        reservations.computeIfAbsent(reservation.getUsername(), k -> new ArrayList<>()).add(reservation);
+    }
+
+    /**
+     * Removes a {@link Reservation reservation} from the reservations of its user. Only this very reservation is
+     * removed, not another one of the user's reservations for the same show time.
+     *
+     * @param reservations reservations grouped by username
+     * @param reservation  the {@link Reservation reservation} to remove
+     * @return true if the reservation was found and removed
+     */
+    private boolean removeReservation(Map<String, List<Reservation>> reservations, Reservation reservation) {
+        List<Reservation> userReservations = reservations.get(reservation.getUsername());
+        if (userReservations == null || !userReservations.removeIf(r -> r == reservation)) {
+            return false;
+        }
+        if (userReservations.isEmpty()) {
+            reservations.remove(reservation.getUsername());
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a {@link Reservation reservation} is among the reservations of its user
+     *
+     * @param reservations reservations grouped by username
+     * @param reservation  the {@link Reservation reservation} to look for
+     * @return true if this very reservation is found
+     */
+    private boolean containsReservation(Map<String, List<Reservation>> reservations, Reservation reservation) {
+        for (Reservation r : getUserReservations(reservations, reservation.getUsername())) {
+            if (r == reservation) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the reservations of a user
+     *
+     * @param reservations reservations grouped by username
+     * @param username     the username to look up
+     * @return the user's reservations, empty if the user has none
+     */
+    private List<Reservation> getUserReservations(Map<String, List<Reservation>> reservations, String username) {
+        return reservations.getOrDefault(username, Collections.emptyList());
+    }
+
+    /**
+     * Compiles the reservations of every user into one list
+     *
+     * @param reservations reservations grouped by username
+     * @return a list of all the reservations
+     */
+    private List<Reservation> compileReservations(Map<String, List<Reservation>> reservations) {
+        List<Reservation> compiled = new ArrayList<>();
+        for (List<Reservation> userReservations : reservations.values()) {
+            compiled.addAll(userReservations);
+        }
+        return compiled;
+    }
+}
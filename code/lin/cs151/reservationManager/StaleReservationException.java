@@ -0,0 +1,19 @@
+package lin.cs151.reservationManager;
+
+/**
+ * Exception which is thrown when a {@link lin.cs151.reservationData.Reservation reservation} was changed by someone
+ * else, or is being changed, since the change being made was based on it.
+ *
+ * @author Raymond Lin
+ */
+public class StaleReservationException extends Exception {
+
+    /**
+     * Creates a new exception when a change to a reservation is based on an old version of it
+     *
+     * @param message a user friendly message
+     */
+    public StaleReservationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,83 @@
+package lin.cs151.theaterReservationAvailability;
+
+/**
+ * One screen at one of the theater's venues, and the files its seats and show times are loaded from
+ *
+ * @author Raymond Lin
+ */
+public class Auditorium {
+
+    private String venue;
+    private String name;
+    private String layoutFileName;
+    private String showtimeFileName;
+
+    /**
+     * Creates a new auditorium
+     *
+     * @param venue            the name of the venue, for example "Downtown"
+     * @param name             the name of the auditorium within the venue, for example "1"
+     * @param layoutFileName   the name of the layout file in the data folder, see {@link VenueLayout}
+     * @param showtimeFileName the name of the show time file in the data folder, see {@link ShowtimeCalendar}
+     */
+    public Auditorium(String venue, String name, String layoutFileName, String showtimeFileName) {
+        this.venue = venue;
+        this.name = name;
+        this.layoutFileName = layoutFileName;
+        this.showtimeFileName = showtimeFileName;
+    }
+
+    /**
+     * Gets the name that identifies this auditorium across all venues
+     *
+     * @return the venue and auditorium name, for example "Downtown/1"
+     */
+    public String getId() {
+        return venue + "/" + name;
+    }
+
+    /**
+     * Gets the name of the venue
+     *
+     * @return the name of the venue
+     */
+    public String getVenue() {
+        return venue;
+    }
+
+    /**
+     * Gets the name of the auditorium within the venue
+     *
+     * @return the name of the auditorium
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the name of the layout file
+     *
+     * @return the name of the layout file in the data folder
+     */
+    public String getLayoutFileName() {
+        return layoutFileName;
+    }
+
+    /**
+     * Gets the name of the show time file
+     *
+     * @return the name of the show time file in the data folder
+     */
+    public String getShowtimeFileName() {
+        return showtimeFileName;
+    }
+
+    /**
+     * Gets the auditorium as shown to users
+     *
+     * @return the venue and auditorium name, for example "Downtown Auditorium 1"
+     */
+    public String toString() {
+        return venue + " Auditorium " + name;
+    }
+}
@@ -0,0 +1,112 @@
+package lin.cs151.theaterReservationAvailability;
+
+import lin.cs151.fileManagement.AuditoriumFileManagement;
+import lin.cs151.fileManagement.LayoutFileManagement;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * All auditoriums the theater operates, across all venues. Every auditorium has its own {@link MovieTimeSlot show times}
+ * and seats, loaded the first time the auditorium is used, so auditoriums never share a lock or load each other's data.
+ *
+ * @author Raymond Lin
+ */
+public class AuditoriumDirectory {
+
+    private List<Auditorium> auditoriums;
+    private Map<String, Auditorium> auditoriumsById;
+    private Map<String, MovieTimeSlot> movieTimeSlots;
+    private Map<String, VenueLayout> layouts;
+    private SeatHoldReaper seatHoldReaper;
+
+    /**
+     * Creates a new directory of auditoriums from the auditorium file, falling back to a single auditorium using the
+     * default layout and show time files if the file does not exist
+     */
+    public AuditoriumDirectory() {
+        movieTimeSlots = new ConcurrentHashMap<>();
+        layouts = new HashMap<>();
+        seatHoldReaper = new SeatHoldReaper();
+        loadAuditoriums();
+    }
+
+    /**
+     * Loads all auditoriums from file
+     */
+    private void loadAuditoriums() {
+        AuditoriumFileManagement auditoriumFileManagement = new AuditoriumFileManagement();
+        auditoriums = auditoriumFileManagement.readAuditoriums("auditoriums.txt");
+        if (auditoriums == null || auditoriums.isEmpty()) {
+            auditoriums = new ArrayList<>();
+            auditoriums.add(new Auditorium("Main", "1", "layout.txt", "showtimes.txt"));
+        }
+        auditoriumsById = new HashMap<>();
+        for (Auditorium auditorium : auditoriums) {
+            auditoriumsById.put(auditorium.getId(), auditorium);
+        }
+    }
+
+    /**
+     * Gets all auditoriums
+     *
+     * @return a read only list of auditoriums in the order they are listed in the auditorium file
+     */
+    public List<Auditorium> getAuditoriums() {
+        return Collections.unmodifiableList(auditoriums);
+    }
+
+    /**
+     * Gets an auditorium by its id
+     *
+     * @param auditoriumId the id of the auditorium, see {@link Auditorium#getId()}, or null for the first auditorium
+     * @return the auditorium, or null if there is no auditorium with that id
+     */
+    public Auditorium getAuditorium(String auditoriumId) {
+        if (auditoriumId == null) {
+            return auditoriums.get(0);
+        }
+        return auditoriumsById.get(auditoriumId);
+    }
+
+    /**
+     * Gets the show times of an auditorium, loading them the first time they are needed
+     *
+     * @param auditoriumId the id of the auditorium, see {@link Auditorium#getId()}, or null for the first auditorium
+     * @return the show times of the auditorium, or null if there is no auditorium with that id
+     */
+    public MovieTimeSlot getMovieTimeSlot(String auditoriumId) {
+        Auditorium auditorium = getAuditorium(auditoriumId);
+        if (auditorium == null) {
+            return null;
+        }
+        MovieTimeSlot movieTimeSlot = movieTimeSlots.get(auditorium.getId());
+        if (movieTimeSlot == null) {
+            movieTimeSlot = movieTimeSlots.computeIfAbsent(auditorium.getId(), k -> new MovieTimeSlot(getLayout(auditorium.getLayoutFileName()), auditorium.getShowtimeFileName(), seatHoldReaper));
+        }
+        return movieTimeSlot;
+    }
+
+    /**
+     * Gets a layout by file name. Auditoriums sharing a layout file share one {@link VenueLayout layout}.
+     *
+     * @param layoutFileName the name of the layout file in the data folder
+     * @return the layout, or the default layout if the file does not exist or is not a valid layout
+     */
+    private synchronized VenueLayout getLayout(String layoutFileName) {
+        VenueLayout layout = layouts.get(layoutFileName);
+        if (layout == null) {
+            if (layoutFileName.equals("layout.txt")) {
+                layout = VenueLayout.getDefaultLayout();
+            } else {
+                LayoutFileManagement layoutFileManagement = new LayoutFileManagement();
+                layout = layoutFileManagement.readLayout(layoutFileName);
+                if (layout == null) {
+                    layout = VenueLayout.getDefaultLayout();
+                }
+            }
+            layouts.put(layoutFileName, layout);
+        }
+        return layout;
+    }
+}
@@ -1,81 +1,268 @@
 package lin.cs151.theaterReservationAvailability;
 
+import lin.cs151.fileManagement.ShowtimeFileManagement;
 import lin.cs151.reservationData.Reservation;
 import lin.cs151.reservationManager.ReservationManagerMode;
+import lin.cs151.ticketCost.Price;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Manages all show times for the theater.
+ * Manages all show times for the theater. Show times are kept in a concurrent map and each show time locks its own
+ * seats through {@link SectionSeat}, so bookings for different show times never wait on each other.
+ * The show times themselves are listed by a {@link ShowtimeCalendar} loaded from the show time file.
+ * Seats are only created for a show time once something is booked for it; until then every show time shares one
+ * inventory of free seats that is only ever read.
  *
  * @author Raymond Lin
  */
 public class MovieTimeSlot {
 
+    private static final long SEAT_HOLD_MINUTES = 10;
+    private static final int TIME_SLOTS_PER_PAGE = 30;
+    private static final DateTimeFormatter TIME_SLOT_FORMATTER = DateTimeFormatter.ofPattern("MM-dd-yyyy HH:mm");
+
     private Map<LocalDateTime, SectionSeat> timeSlots;
+    private SectionSeat freeSeats;
+    private volatile ShowtimeCalendar calendar;
+    private SeatHoldReaper seatHoldReaper;
+    private VenueLayout layout;
+    private String showtimeFileName;
+    private Price price;
+    private List<SeatType> seatTypesByPrice;
 
     /**
-     * Creates a new instance of show times
+     * Creates a new instance of show times in the default {@link VenueLayout layout}
      */
     public MovieTimeSlot() {
-        timeSlots = new TreeMap<>();
+        this(VenueLayout.getDefaultLayout());
+    }
+
+    /**
+     * Creates a new instance of show times
+     *
+     * @param layout the {@link VenueLayout layout} every show time is seated in
+     */
+    public MovieTimeSlot(VenueLayout layout) {
+        this(layout, "showtimes.txt", new SeatHoldReaper());
+    }
+
+    /**
+     * Creates a new instance of show times for one auditorium
+     *
+     * @param layout           the {@link VenueLayout layout} every show time is seated in
+     * @param showtimeFileName the name of the show time file in the data folder
+     * @param seatHoldReaper   the reaper that expires seat holds, which may be shared with other auditoriums
+     */
+    public MovieTimeSlot(VenueLayout layout, String showtimeFileName, SeatHoldReaper seatHoldReaper) {
+        this.layout = layout;
+        this.showtimeFileName = showtimeFileName;
+        this.seatHoldReaper = seatHoldReaper;
+        timeSlots = new ConcurrentHashMap<>();
+        freeSeats = new SectionSeat(layout);
+        loadSeatTypesByPrice();
         loadTimeSlots();
     }
 
     /**
      * Begins to update availability of seats for each show time using {@link Reservation reservation} data.
-     * Only occurs once during startup.
+     * Only occurs once during startup. Either every seat of the reservation is taken or none are.
      *
      * @param r the {@link Reservation reservation} data to load into memory
+     * @throws SeatOverBookException     if a seat of the reservation is already taken by another reservation
+     * @throws SeatDoesNotExistException if a seat of the reservation does not exist, or its show time is no longer listed
      */
-    public void updateWithFile(Reservation r) {
+    public void updateWithFile(Reservation r) throws SeatOverBookException, SeatDoesNotExistException {
         LocalDateTime dateTime = r.getMovieTimeSlot();
         String seatIDs = r.getSeatIDs();
-        try {
-            if (!seatIDs.isEmpty()) {
-                reserveSeats(dateTime, seatIDs, r, ReservationManagerMode.LOAD);
-            }
-        } catch (SeatDoesNotExistException | SeatOverBookException e) {
-            System.out.println(e.getMessage());
+        if (calendar.indexOf(dateTime) < 0) {
+            throw new SeatDoesNotExistException("Its show time is no longer listed.");
+        }
+        if (!seatIDs.isEmpty()) {
+            reserveSeats(dateTime, seatIDs, r, ReservationManagerMode.LOAD);
         }
     }
 
     /**
      * Get a given show time using unique integer
      *
-     * @param number numbered show time to get
-     * @return a time slot formatted as {@linkplain LocalDateTime}
+     * @param number numbered show time to get, as listed by {@link #listAvailableTimeSlots(int)}
+     * @return a time slot formatted as {@linkplain LocalDateTime}, or null if there is no show time with that number
      */
     public LocalDateTime getMovieTimeSlot(int number) {
-        Set<LocalDateTime> dayAndTime = timeSlots.keySet();
-        Object[] daysAndTimes = dayAndTime.toArray();
-        Object temp = daysAndTimes[number - 1];
-        return (LocalDateTime) temp;
+        return getMovieTimeSlot(calendar, number);
+    }
+
+    /**
+     * Get a given show time using the number it was listed with. Past show times may have been dropped since the list
+     * was printed, which renumbers the show times listed now, so the number is looked up in the list that was printed.
+     *
+     * @param listed the show times the number was listed with, see {@link #getShowtimeCalendar()}
+     * @param number numbered show time to get, as listed by {@link #listAvailableTimeSlots(ShowtimeCalendar, int)}
+     * @return a time slot formatted as {@linkplain LocalDateTime}, or null if there is no show time with that number
+     */
+    public LocalDateTime getMovieTimeSlot(ShowtimeCalendar listed, int number) {
+        return listed.getShowtime(number - 1);
+    }
+
+    /**
+     * Gets the show times listed right now. The calendar itself never changes; dropping past show times lists a new one.
+     *
+     * @return the listed show times
+     */
+    public ShowtimeCalendar getShowtimeCalendar() {
+        return calendar;
     }
 
     /**
-     * Prints out all the available show times
+     * Checks if a show time is listed and can be booked
      *
-     * @return a String containing all available show times
+     * @param movieTimeSlot the show time to check
+     * @return true if the show time is listed
+     */
+    public boolean isListed(LocalDateTime movieTimeSlot) {
+        return calendar.indexOf(movieTimeSlot) >= 0;
+    }
+
+    /**
+     * Prints out the first page of available show times
+     *
+     * @return a String containing the first page of show times
      */
     public String listAvailableTimeSlots() {
+        return listAvailableTimeSlots(1);
+    }
+
+    /**
+     * Prints out one page of the available show times. Show times keep the same number on every page.
+     *
+     * @param page the page to print, starting at 1
+     * @return a String containing the show times on that page
+     */
+    public String listAvailableTimeSlots(int page) {
+        return listAvailableTimeSlots(calendar, page);
+    }
+
+    /**
+     * Prints out one page of the given show times, see {@link #listAvailableTimeSlots(int)}
+     *
+     * @param listed the show times to list, see {@link #getShowtimeCalendar()}
+     * @param page   the page to print, starting at 1
+     * @return a String containing the show times on that page
+     */
+    public String listAvailableTimeSlots(ShowtimeCalendar listed, int page) {
         StringBuilder builder = new StringBuilder();
-        Set<LocalDateTime> dayAndTime = timeSlots.keySet();
-        int i = 1;
-        for (LocalDateTime x : dayAndTime) {
+        int pages = listed.getNumberOfPages(TIME_SLOTS_PER_PAGE);
+        page = Math.max(1, Math.min(page, pages));
+        int end = Math.min(page * TIME_SLOTS_PER_PAGE, listed.size());
+        for (int i = (page - 1) * TIME_SLOTS_PER_PAGE; i < end; i++) {
             builder.append("(");
-            builder.append(i);
+            builder.append(i + 1);
             builder.append(")");
             builder.append(" ");
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM-dd-yyyy HH:mm");
-            builder.append(x.format(formatter)).append("\n");
-            i++;
+            builder.append(listed.getShowtime(i).format(TIME_SLOT_FORMATTER));
+            SectionSeat seats = getSeats(listed.getShowtime(i));
+            if (seats.getAvailability() == SeatAvailability.SOLD_OUT) {
+                builder.append(" - Sold Out");
+            } else if (seats.getAvailability() == SeatAvailability.LOW) {
+                builder.append(" - Only ").append(seats.countAvailableSeats()).append(" seats left");
+            }
+            builder.append("\n");
+        }
+        if (pages > 1) {
+            builder.append("Page ").append(page).append(" of ").append(pages).append("\n");
         }
         return builder.toString();
     }
 
+    /**
+     * Gets the number of pages needed by {@link #listAvailableTimeSlots(int)}
+     *
+     * @return the number of pages of show times
+     */
+    public int getNumberOfTimeSlotPages() {
+        return calendar.getNumberOfPages(TIME_SLOTS_PER_PAGE);
+    }
+
+    /**
+     * Gets the page of {@link #listAvailableTimeSlots(int)} that lists the first show time on or after a given day
+     *
+     * @param day the day to look for
+     * @return the page listing that day, or the last page if there are no show times from that day on
+     */
+    public int getTimeSlotPage(LocalDate day) {
+        int position = Math.min(calendar.firstIndexFrom(day.atStartOfDay()), calendar.size() - 1);
+        return Math.max(0, position) / TIME_SLOTS_PER_PAGE + 1;
+    }
+
+    /**
+     * Finds all show times between two days that start within a given time of day
+     *
+     * @param firstDay the first day to include
+     * @param lastDay  the last day to include
+     * @param earliest the earliest time of day to include
+     * @param latest   the latest time of day to include
+     * @return a list of the matching show times in order
+     */
+    public List<LocalDateTime> findTimeSlots(LocalDate firstDay, LocalDate lastDay, LocalTime earliest, LocalTime latest) {
+        return calendar.getShowtimes(firstDay, lastDay, earliest, latest);
+    }
+
+    /**
+     * Counts the available seats of a show time
+     *
+     * @param movieTimeSlot show time to use
+     * @return the number of seats neither reserved nor held
+     */
+    public int countAvailableSeats(LocalDateTime movieTimeSlot) {
+        return getSeats(movieTimeSlot).countAvailableSeats();
+    }
+
+    /**
+     * Counts the available seats of a seat type for a show time
+     *
+     * @param movieTimeSlot show time to use
+     * @param seatType      the seat type to count
+     * @return the number of seats of that seat type neither reserved nor held
+     */
+    public int countAvailableSeats(LocalDateTime movieTimeSlot, SeatType seatType) {
+        return getSeats(movieTimeSlot).countAvailableSeats(seatType);
+    }
+
+    /**
+     * Tells how full a show time is
+     *
+     * @param movieTimeSlot show time to use
+     * @return how full the show time is as defined by {@link SeatAvailability}
+     */
+    public SeatAvailability getAvailability(LocalDateTime movieTimeSlot) {
+        return getSeats(movieTimeSlot).getAvailability();
+    }
+
+    /**
+     * Lists every show time that is sold out or running low on seats. Only show times that have bookings can be, so
+     * only those are checked.
+     *
+     * @param availability the availability to look for, either {@link SeatAvailability#SOLD_OUT SOLD_OUT} or
+     *                     {@link SeatAvailability#LOW LOW}
+     * @return a list of the matching show times in order
+     */
+    public List<LocalDateTime> findTimeSlots(SeatAvailability availability) {
+        List<LocalDateTime> matches = new ArrayList<>();
+        for (Map.Entry<LocalDateTime, SectionSeat> timeSlot : timeSlots.entrySet()) {
+            if (timeSlot.getValue().getAvailability() == availability) {
+                matches.add(timeSlot.getKey());
+            }
+        }
+        Collections.sort(matches);
+        return matches;
+    }
+
     /**
      * Shows all available seats for this particular show time. Seat availability managed by {@link SectionSeat}.
      *
@@ -83,12 +270,78 @@ public class MovieTimeSlot {
      * @return a String containing all available seats
      */
     public String viewAvailableSeats(LocalDateTime movieTimeSlot) {
-        SectionSeat availableSeats = timeSlots.get(movieTimeSlot);
+        SectionSeat availableSeats = getSeats(movieTimeSlot);
         return availableSeats.viewAvailableSeats();
     }
 
     /**
-     * Begins to reserve seats for a particular show time
+     * Finds the best block of side by side available seats for a party. Seat types are tried from the most expensive
+     * to the least expensive as priced by {@link Price}, skipping any seat type that does not match the filters.
+     *
+     * @param movieTimeSlot show time to use
+     * @param partySize     the number of seats needed together
+     * @param seatType      the only seat type to consider, or null to consider every seat type
+     * @param maxPrice      the highest ticket price to consider
+     * @return the seat numbers of the block, separated by commas, or an empty String if there is no such block
+     */
+    public String findBestAvailableSeats(LocalDateTime movieTimeSlot, int partySize, SeatType seatType, double maxPrice) {
+        SectionSeat availableSeats = getSeats(movieTimeSlot);
+        for (SeatType type : seatTypesByPrice) {
+            if ((seatType != null && seatType != type) || price.getPrice(type) > maxPrice) {
+                continue;
+            }
+            String seats = availableSeats.findContiguousSeats(partySize, type);
+            if (!seats.isEmpty()) {
+                return seats;
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Finds the best block of side by side available seats for a party in any seat type at any price
+     *
+     * @param movieTimeSlot show time to use
+     * @param partySize     the number of seats needed together
+     * @return the seat numbers of the block, separated by commas, or an empty String if there is no such block
+     */
+    public String findBestAvailableSeats(LocalDateTime movieTimeSlot, int partySize) {
+        return findBestAvailableSeats(movieTimeSlot, partySize, null, Double.MAX_VALUE);
+    }
+
+    /**
+     * Gets the layout every show time is seated in
+     *
+     * @return the {@link VenueLayout layout} of the auditorium
+     */
+    public VenueLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Gets how long seats are held for before they are released
+     *
+     * @return the number of minutes a seat hold lasts
+     */
+    public long getSeatHoldMinutes() {
+        return SEAT_HOLD_MINUTES;
+    }
+
+    /**
+     * Shows all available seats for this particular show time as ranges of seats, for example "m1-m37, m40-m50".
+     * Seat availability managed by {@link SectionSeat}.
+     *
+     * @param movieTimeSlot show time to use
+     * @return a String containing all available seats
+     */
+    public String viewAvailableSeatRanges(LocalDateTime movieTimeSlot) {
+        SectionSeat availableSeats = getSeats(movieTimeSlot);
+        return availableSeats.viewAvailableSeatRanges();
+    }
+
+    /**
+     * Begins to reserve seats for a particular show time. In {@link ReservationManagerMode#HOLD HOLD} mode the seats are
+     * only held and are released automatically unless {@link #confirmSeatHolds(Reservation)} is called in time.
      *
      * @param dateTime    show time to reserve seats for
      * @param seatId      a String containing all seats numbers to reserve
@@ -98,24 +351,299 @@ public class MovieTimeSlot {
      * @throws SeatOverBookException     thrown when a requested seat is already reserved
      */
     public void reserveSeats(LocalDateTime dateTime, String seatId, Reservation reservation, ReservationManagerMode mode) throws SeatDoesNotExistException, SeatOverBookException {
-        SectionSeat movieTimeSlotSeatAvailability = timeSlots.get(dateTime);
-        movieTimeSlotSeatAvailability.reserveSeats(seatId, reservation, mode);
+        SectionSeat movieTimeSlotSeatAvailability = getSeatsForBooking(dateTime);
+        if (movieTimeSlotSeatAvailability.getCommandLoop() == null) {
+            changeSeats(movieTimeSlotSeatAvailability, seatId, reservation, mode);
+        } else {
+            await(reserveSeatsAsync(dateTime, seatId, reservation, mode));
+        }
+    }
 
+    /**
+     * Begins to reserve seats for a particular show time without waiting for them. If the show time has a
+     * {@link ShowtimeCommandLoop command loop}, the request is queued on it; otherwise the seats are reserved right away.
+     *
+     * @param dateTime    show time to reserve seats for
+     * @param seatId      a String containing all seats numbers to reserve
+     * @param reservation the reservation to add the reserved seats to
+     * @param mode        the mode in which the reservation system is in. {@link ReservationManagerMode}
+     * @return a future completed once the seats are reserved, or completed with a {@link SeatDoesNotExistException} or
+     * {@link SeatOverBookException} if they could not be
+     */
+    public CompletableFuture<Void> reserveSeatsAsync(LocalDateTime dateTime, String seatId, Reservation reservation, ReservationManagerMode mode) {
+        SectionSeat movieTimeSlotSeatAvailability;
+        try {
+            movieTimeSlotSeatAvailability = getSeatsForBooking(dateTime);
+        } catch (SeatDoesNotExistException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return ShowtimeCommandLoop.submit(movieTimeSlotSeatAvailability, seats -> {
+            changeSeats(seats, seatId, reservation, mode);
+            return null;
+        });
     }
 
     /**
-     * Loads all the show times
+     * Reserves, holds or cancels seats of a show time on the calling thread
+     *
+     * @param seats       the seats of the show time
+     * @param seatId      a String containing all seats numbers to reserve
+     * @param reservation the reservation to add the reserved seats to
+     * @param mode        the mode in which the reservation system is in. {@link ReservationManagerMode}
+     * @throws SeatDoesNotExistException thrown when a requested seat does not exist
+     * @throws SeatOverBookException     thrown when a requested seat is already reserved
+     */
+    private void changeSeats(SectionSeat seats, String seatId, Reservation reservation, ReservationManagerMode mode) throws SeatDoesNotExistException, SeatOverBookException {
+        if (mode == ReservationManagerMode.HOLD) {
+            long expiresAt = System.currentTimeMillis() + SEAT_HOLD_MINUTES * 60 * 1000;
+            SeatHold hold = seats.holdSeats(seatId, reservation, expiresAt);
+            seatHoldReaper.schedule(hold);
+        } else {
+            seats.reserveSeats(seatId, reservation, mode);
+        }
+    }
+
+    /**
+     * Waits for a change queued on a {@link ShowtimeCommandLoop command loop}
+     *
+     * @param future the future of the change
+     * @param <T>    the type of the result
+     * @return the result of the change
+     * @throws SeatDoesNotExistException if the change failed because a seat does not exist
+     * @throws SeatOverBookException     if the change failed because a seat is already reserved or held
+     */
+    private <T> T await(CompletableFuture<T> future) throws SeatDoesNotExistException, SeatOverBookException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SeatDoesNotExistException) {
+                throw (SeatDoesNotExistException) e.getCause();
+            } else if (e.getCause() instanceof SeatOverBookException) {
+                throw (SeatOverBookException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sends every change to the seats of a show time through a single writer thread from now on, see
+     * {@link ShowtimeCommandLoop}. Meant for show times that many people book at once, such as a flash sale.
+     *
+     * @param movieTimeSlot show time to use
+     * @throws SeatDoesNotExistException if the show time is not listed
+     */
+    public void startCommandLoop(LocalDateTime movieTimeSlot) throws SeatDoesNotExistException {
+        SectionSeat seats = getSeatsForBooking(movieTimeSlot);
+        synchronized (seats) {
+            if (seats.getCommandLoop() == null) {
+                seats.setCommandLoop(new ShowtimeCommandLoop(seats, "showtime-writer " + movieTimeSlot.format(TIME_SLOT_FORMATTER)));
+            }
+        }
+    }
+
+    /**
+     * Goes back to making changes to the seats of a show time on the calling thread, once the changes already queued
+     * have been made
+     *
+     * @param movieTimeSlot show time to use
+     */
+    public void stopCommandLoop(LocalDateTime movieTimeSlot) {
+        SectionSeat seats = timeSlots.get(movieTimeSlot);
+        if (seats == null) {
+            return;
+        }
+        ShowtimeCommandLoop commandLoop;
+        synchronized (seats) {
+            commandLoop = seats.getCommandLoop();
+            seats.setCommandLoop(null);
+        }
+        if (commandLoop != null) {
+            commandLoop.stop();
+        }
+    }
+
+    /**
+     * Reserves the seats of many reservations for one show time at once, see
+     * {@link SectionSeat#reserveSeats(List, List)}
+     *
+     * @param dateTime     show time to reserve seats for
+     * @param seatRequests the seat numbers of each reservation, separated by commas
+     * @param reservations the reservations to add the reserved seats to, in the same order
+     * @return for each reservation, null if its seats were reserved, otherwise the exception telling why not
+     * @throws SeatDoesNotExistException if the show time is not listed
+     */
+    public List<Exception> reserveSeats(LocalDateTime dateTime, List<String> seatRequests, List<Reservation> reservations) throws SeatDoesNotExistException {
+        // a batch reports seat problems in its results and never fails as a whole
+        return ShowtimeCommandLoop.submit(getSeatsForBooking(dateTime), seats -> seats.reserveSeats(seatRequests, reservations)).join();
+    }
+
+    /**
+     * Adds a party to the waitlist of a show time. Whenever seats are released for the show time, they are held for
+     * the first waiting party that fits, see {@link Waitlist}.
+     *
+     * @param movieTimeSlot show time to wait for
+     * @param reservation   the {@link Reservation reservation} to hold seats for
+     * @param partySize     the number of seats needed together
+     * @param seatType      the only seat type the party accepts, or null to accept any seat type
+     * @return the party's place on the waitlist
+     * @throws SeatDoesNotExistException if the show time is not listed or no section can ever seat the party together
+     */
+    public WaitlistEntry joinWaitlist(LocalDateTime movieTimeSlot, Reservation reservation, int partySize, SeatType seatType) throws SeatDoesNotExistException {
+        SectionSeat seats = getSeatsForBooking(movieTimeSlot);
+        Waitlist waitlist;
+        synchronized (seats) {
+            waitlist = seats.getWaitlist();
+            if (waitlist == null) {
+                waitlist = new Waitlist(seats, seatHoldReaper, SEAT_HOLD_MINUTES * 60 * 1000, seatTypesByPrice);
+                seats.setWaitlist(waitlist);
+            }
+        }
+        Waitlist joined = waitlist;
+        try {
+            return await(ShowtimeCommandLoop.submit(seats, s -> joined.join(reservation, partySize, seatType)));
+        } catch (SeatOverBookException e) {
+            // joining only ever holds seats that were found free, see Waitlist#promote()
+            throw new SeatDoesNotExistException(e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the number of parties waiting for seats for a show time
+     *
+     * @param movieTimeSlot show time to use
+     * @return the number of waiting parties
+     */
+    public int countWaitingParties(LocalDateTime movieTimeSlot) {
+        Waitlist waitlist = getSeats(movieTimeSlot).getWaitlist();
+        return waitlist == null ? 0 : waitlist.size();
+    }
+
+    /**
+     * Gets the seats of a show time for reading. Show times nothing was booked for share the same free seats.
+     *
+     * @param movieTimeSlot show time to use
+     * @return the seats of the show time
+     */
+    private SectionSeat getSeats(LocalDateTime movieTimeSlot) {
+        return timeSlots.getOrDefault(movieTimeSlot, freeSeats);
+    }
+
+    /**
+     * Gets the seats of a show time for booking, creating them the first time the show time is booked. They are created
+     * under the same lock {@link #dropPastTimeSlots(LocalDateTime, Set)} drops them with, so a show time that was just
+     * dropped does not get seats again.
+     *
+     * @param movieTimeSlot show time to use
+     * @return the seats of the show time
+     * @throws SeatDoesNotExistException if the show time is not listed
+     */
+    private SectionSeat getSeatsForBooking(LocalDateTime movieTimeSlot) throws SeatDoesNotExistException {
+        SectionSeat seats = timeSlots.get(movieTimeSlot);
+        if (seats != null) {
+            return seats;
+        }
+        synchronized (this) {
+            if (calendar.indexOf(movieTimeSlot) < 0) {
+                throw new SeatDoesNotExistException("The show time you have selected is no longer listed. Please choose another show time.");
+            }
+            return timeSlots.computeIfAbsent(movieTimeSlot, k -> new SectionSeat(layout));
+        }
+    }
+
+    /**
+     * Stops listing every show time that starts before a given time and drops its seats from memory
+     *
+     * @param now the time to compare show times against
+     * @return the number of show times no longer listed
+     */
+    public int dropPastTimeSlots(LocalDateTime now) {
+        return dropPastTimeSlots(now, Collections.emptySet());
+    }
+
+    /**
+     * Stops listing every show time that starts before a given time and drops its seats from memory, except the seats
+     * of show times that reservations still being changed hold seats for. Those are dropped another time.
+     *
+     * @param now   the time to compare show times against
+     * @param inUse the show times whose seats must be kept
+     * @return the number of show times no longer listed
+     */
+    public synchronized int dropPastTimeSlots(LocalDateTime now, Set<LocalDateTime> inUse) {
+        ShowtimeCalendar current = calendar;
+        calendar = new ShowtimeCalendar(current.getShowtimes(now, LocalDateTime.MAX));
+        for (LocalDateTime movieTimeSlot : timeSlots.keySet()) {
+            if (movieTimeSlot.isBefore(now) && !inUse.contains(movieTimeSlot)) {
+                stopCommandLoop(movieTimeSlot);
+                timeSlots.remove(movieTimeSlot);
+            }
+        }
+        return current.size() - calendar.size();
+    }
+
+    /**
+     * Gets the number of show times whose seats are held in memory because something was booked for them
+     *
+     * @return the number of show times with seats in memory
+     */
+    public int countBookedTimeSlots() {
+        return timeSlots.size();
+    }
+
+    /**
+     * Turns all seats held for a {@link Reservation reservation} into reserved seats. Holds a waitlist adds for the
+     * reservation in the meantime are left for the next confirmation.
+     *
+     * @param reservation the reservation being confirmed
+     * @throws SeatOverBookException if a hold expired and its seats were reserved by someone else in the meantime
+     */
+    public void confirmSeatHolds(Reservation reservation) throws SeatOverBookException {
+        StringBuilder errors = new StringBuilder();
+        List<SeatHold> holds = new ArrayList<>(reservation.getSeatHolds());
+        for (SeatHold hold : holds) {
+            try {
+                await(ShowtimeCommandLoop.submit(hold.getSectionSeat(), seats -> {
+                    seats.confirmSeatHold(hold);
+                    return null;
+                }));
+            } catch (SeatOverBookException | SeatDoesNotExistException e) {
+                errors.append(e.getMessage()).append("\n");
+            }
+        }
+        reservation.removeSeatHolds(holds);
+        if (errors.length() != 0) {
+            throw new SeatOverBookException(errors.toString());
+        }
+    }
+
+    /**
+     * Orders the seat types from the most expensive to the least expensive
+     */
+    private void loadSeatTypesByPrice() {
+        price = new Price(layout);
+        seatTypesByPrice = new ArrayList<>(Arrays.asList(SeatType.values()));
+        seatTypesByPrice.sort((a, b) -> Double.compare(price.getPrice(b), price.getPrice(a)));
+    }
+
+    /**
+     * Loads all the show times from the show time file, falling back to the original holiday schedule if the file
+     * does not exist
      */
     private void loadTimeSlots() {
-        LocalDate daySlot = LocalDate.of(2020, 12, 23);
-        LocalTime timeSlot1 = LocalTime.of(18, 30);
-        LocalTime timeSlot2 = LocalTime.of(20, 30);
-        while (daySlot.isBefore(LocalDate.of(2021, 1, 3))) {
-            LocalDateTime movieTimeSlot = LocalDateTime.of(daySlot, timeSlot1);
-            timeSlots.put(movieTimeSlot, new SectionSeat());
-            movieTimeSlot = LocalDateTime.of(daySlot, timeSlot2);
-            timeSlots.put(movieTimeSlot, new SectionSeat());
-            daySlot = daySlot.plusDays(1);
+        ShowtimeFileManagement showtimeFileManagement = new ShowtimeFileManagement();
+        List<LocalDateTime> showtimes = showtimeFileManagement.readShowtimes(showtimeFileName);
+        if (showtimes == null) {
+            showtimes = new ArrayList<>();
+            LocalDate daySlot = LocalDate.of(2020, 12, 23);
+            LocalTime timeSlot1 = LocalTime.of(18, 30);
+            LocalTime timeSlot2 = LocalTime.of(20, 30);
+            while (daySlot.isBefore(LocalDate.of(2021, 1, 3))) {
+                showtimes.add(LocalDateTime.of(daySlot, timeSlot1));
+                showtimes.add(LocalDateTime.of(daySlot, timeSlot2));
+                daySlot = daySlot.plusDays(1);
+            }
         }
+        calendar = new ShowtimeCalendar(showtimes);
     }
 }
@@ -0,0 +1,10 @@
+package lin.cs151.theaterReservationAvailability;
+
+/**
+ * How full a show time is
+ *
+ * @author Raymond Lin
+ */
+public enum SeatAvailability {
+    AVAILABLE, LOW, SOLD_OUT
+}
@@ -0,0 +1,134 @@
+package lin.cs151.theaterReservationAvailability;
+
+import lin.cs151.reservationData.Reservation;
+
+import java.util.*;
+
+/**
+ * A temporary hold on a set of seats for one show time. Held seats cannot be reserved by anyone else until the hold
+ * is confirmed into a sale or expires.
+ *
+ * @author Raymond Lin
+ */
+public class SeatHold {
+
+    private SectionSeat sectionSeat;
+    private Reservation reservation;
+    private long[] seats;
+    private List<String> seatIDs;
+    private long expiresAt;
+    private volatile boolean expired;
+    private volatile boolean confirmed;
+
+    /**
+     * Creates a new hold
+     *
+     * @param sectionSeat the seat availability manager holding the seats
+     * @param reservation the {@link Reservation reservation} the seats were held for
+     * @param seats       a bit set holding the seats in this hold
+     * @param seatIDs     the seat numbers in this hold as typed by the user
+     * @param expiresAt   the time in milliseconds, see {@link System#currentTimeMillis()}, when this hold expires
+     */
+    SeatHold(SectionSeat sectionSeat, Reservation reservation, long[] seats, List<String> seatIDs, long expiresAt) {
+        this.sectionSeat = sectionSeat;
+        this.reservation = reservation;
+        this.seats = seats;
+        this.seatIDs = seatIDs;
+        this.expiresAt = expiresAt;
+        this.expired = false;
+        this.confirmed = false;
+    }
+
+    /**
+     * Gets the seat availability manager holding the seats
+     *
+     * @return the seat availability manager
+     */
+    SectionSeat getSectionSeat() {
+        return sectionSeat;
+    }
+
+    /**
+     * Gets the {@link Reservation reservation} the seats were held for
+     *
+     * @return the reservation
+     */
+    Reservation getReservation() {
+        return reservation;
+    }
+
+    /**
+     * Gets the seats in this hold as a bit set
+     *
+     * @return a bit set holding the seats in this hold
+     */
+    long[] getSeats() {
+        return seats;
+    }
+
+    /**
+     * Gets the seat numbers in this hold
+     *
+     * @return the seat numbers in this hold as typed by the user
+     */
+    List<String> getSeatIDs() {
+        return seatIDs;
+    }
+
+    /**
+     * Gets the time this hold expires
+     *
+     * @return the time in milliseconds when this hold expires
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Checks if this hold has expired
+     *
+     * @return true if the held seats were released because the hold expired
+     */
+    public boolean isExpired() {
+        return expired;
+    }
+
+    /**
+     * Checks if this hold has been confirmed
+     *
+     * @return true if the held seats have been turned into reserved seats
+     */
+    public boolean isConfirmed() {
+        return confirmed;
+    }
+
+    /**
+     * Marks this hold as expired
+     */
+    void setExpired() {
+        expired = true;
+    }
+
+    /**
+     * Marks this hold as confirmed
+     */
+    void setConfirmed() {
+        confirmed = true;
+    }
+
+    /**
+     * Releases this hold if it has not been confirmed yet. Called by {@link SeatHoldReaper} when the hold times out.
+     * If the show time has a {@link ShowtimeCommandLoop command loop}, the release is queued on it like any other change.
+     */
+    void expire() {
+        ShowtimeCommandLoop commandLoop = sectionSeat.getCommandLoop();
+        if (commandLoop == null) {
+            sectionSeat.expireSeatHold(this);
+        } else {
+            commandLoop.submit(seats -> {
+                seats.expireSeatHold(this);
+                return null;
+            });
+        }
+    }
+}
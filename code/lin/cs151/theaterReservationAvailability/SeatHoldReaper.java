@@ -0,0 +1,101 @@
+package lin.cs151.theaterReservationAvailability;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires {@link SeatHold seat holds} in bulk using a timing wheel. Each hold is dropped into the bucket for the tick
+ * it expires on, and every tick only the holds in one bucket are looked at, no matter how many show times exist.
+ *
+ * @author Raymond Lin
+ */
+public class SeatHoldReaper {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+
+    private List<List<SeatHold>> wheel;
+    private long startTime;
+    private long currentTick;
+    private ScheduledExecutorService timer;
+
+    /**
+     * Creates a new reaper and starts its background timer
+     */
+    public SeatHoldReaper() {
+        wheel = new ArrayList<>();
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        startTime = System.currentTimeMillis();
+        currentTick = 0;
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "seat-hold-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(this::advance, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds a hold to the wheel so it is released once it expires
+     *
+     * @param hold the {@link SeatHold hold} to expire
+     */
+    public synchronized void schedule(SeatHold hold) {
+        long tick = Math.max(tickOf(hold), currentTick);
+        wheel.get((int) (tick % WHEEL_SIZE)).add(hold);
+    }
+
+    /**
+     * Gets the tick a hold expires on
+     *
+     * @param hold the {@link SeatHold hold} to check
+     * @return the tick number the hold expires on
+     */
+    private long tickOf(SeatHold hold) {
+        return (hold.getExpiresAt() - startTime + TICK_MILLIS - 1) / TICK_MILLIS;
+    }
+
+    /**
+     * Processes every tick that has passed since the last run and releases the holds that are due. A hold that fails to
+     * expire, for example because promoting the waitlist failed, is reported to the timer thread's uncaught exception
+     * handler and the other holds are still released; letting the exception escape would stop the timer for good.
+     */
+    private void advance() {
+        List<SeatHold> due = new ArrayList<>();
+        synchronized (this) {
+            long nowTick = (System.currentTimeMillis() - startTime) / TICK_MILLIS;
+            while (currentTick <= nowTick) {
+                List<SeatHold> bucket = wheel.get((int) (currentTick % WHEEL_SIZE));
+                Iterator<SeatHold> iterator = bucket.iterator();
+                while (iterator.hasNext()) {
+                    SeatHold hold = iterator.next();
+                    // holds further than one turn of the wheel away stay in the bucket
+                    if (hold.isConfirmed() || tickOf(hold) <= currentTick) {
+                        iterator.remove();
+                        due.add(hold);
+                    }
+                }
+                currentTick++;
+            }
+        }
+        for (SeatHold hold : due) {
+            try {
+                hold.expire();
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    /**
+     * Stops the background timer
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
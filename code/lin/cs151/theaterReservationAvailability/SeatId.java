@@ -0,0 +1,77 @@
+package lin.cs151.theaterReservationAvailability;
+
+/**
+ * A single seat in the theater. There is exactly one SeatId for every seat, so seat numbers can be compared by
+ * reference and never have to be parsed or built again once looked up.
+ *
+ * @author Raymond Lin
+ */
+public class SeatId {
+
+    private String seatID;
+    private String prefix;
+    private int seatNumber;
+    private SeatType seatType;
+    private int index;
+
+    /**
+     * Creates a new seat
+     *
+     * @param prefix     the characters of the seat number, for example "sb"
+     * @param seatNumber the numeric component of the seat number
+     * @param seatType   the seat type the seat belongs to
+     * @param index      the position of the seat in the bit set used by {@link SectionSeat}
+     */
+    SeatId(String prefix, int seatNumber, SeatType seatType, int index) {
+        this.seatID = prefix + seatNumber;
+        this.prefix = prefix;
+        this.seatNumber = seatNumber;
+        this.seatType = seatType;
+        this.index = index;
+    }
+
+    /**
+     * Gets the characters of the seat number
+     *
+     * @return the characters of the seat number, for example "sb"
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Gets the numeric component of the seat number
+     *
+     * @return the numeric component of the seat number
+     */
+    public int getSeatNumber() {
+        return seatNumber;
+    }
+
+    /**
+     * Gets the seat type the seat belongs to
+     *
+     * @return the seat type as defined by {@link SeatType}
+     */
+    public SeatType getSeatType() {
+        return seatType;
+    }
+
+    /**
+     * Gets the position of the seat in the bit set used by {@link SectionSeat}
+     *
+     * @return the position of the seat
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the seat number
+     *
+     * @return the seat number, for example "sb40"
+     */
+    public String toString() {
+        return seatID;
+    }
+}
@@ -0,0 +1,389 @@
+package lin.cs151.theaterReservationAvailability;
+
+/**
+ * A read only copy of the seats of one show time at one moment. Every booking publishes a new snapshot once all of its
+ * seats are applied, so a snapshot never shows part of a booking, and reading one never takes a lock.
+ * Each snapshot only copies a few words per section; the rendered seat lists of sections a booking did not touch are
+ * carried over from the previous snapshot.
+ *
+ * @author Raymond Lin
+ */
+public class SeatMapSnapshot {
+
+    private static final int WORD_SIZE = 64;
+    private static final int LOW_AVAILABILITY_PERCENT = 10;
+
+    private VenueLayout layout;
+    private long version;
+    private long[] taken;
+    private int[] sectionAvailable;
+    private int[] seatTypeAvailable;
+    private int available;
+    private int capacity;
+    private String[] sectionView;
+    private String[] sectionRangeView;
+
+    /**
+     * Creates the snapshot of a show time with every seat free
+     *
+     * @param layout the {@link VenueLayout layout} of the hall
+     */
+    SeatMapSnapshot(VenueLayout layout) {
+        int numberOfSections = layout.getNumberOfSections();
+        this.layout = layout;
+        this.version = 0;
+        this.taken = new long[layout.getNumberOfWords()];
+        this.sectionAvailable = new int[numberOfSections];
+        this.seatTypeAvailable = new int[SeatType.values().length];
+        this.capacity = 0;
+        this.sectionView = new String[numberOfSections];
+        this.sectionRangeView = new String[numberOfSections];
+        for (int i = 0; i < numberOfSections; i++) {
+            sectionAvailable[i] = layout.getSectionSize(i);
+            seatTypeAvailable[layout.getSectionSeatType(i).ordinal()] += layout.getSectionSize(i);
+            capacity += layout.getSectionSize(i);
+        }
+        this.available = capacity;
+    }
+
+    /**
+     * Creates the next snapshot by flipping seats between free and taken
+     *
+     * @param previous the snapshot to start from
+     * @param flipped  a bit set of the seats that were taken or freed since the previous snapshot
+     */
+    private SeatMapSnapshot(SeatMapSnapshot previous, long[] flipped) {
+        this.layout = previous.layout;
+        this.version = previous.version + 1;
+        this.taken = previous.taken.clone();
+        this.sectionAvailable = previous.sectionAvailable.clone();
+        this.seatTypeAvailable = previous.seatTypeAvailable.clone();
+        this.available = previous.available;
+        this.capacity = previous.capacity;
+        this.sectionView = previous.sectionView.clone();
+        this.sectionRangeView = previous.sectionRangeView.clone();
+        for (int w = 0; w < flipped.length; w++) {
+            if (flipped[w] == 0) {
+                continue;
+            }
+            int section = layout.getWordSection(w);
+            int change = Long.bitCount(flipped[w] & taken[w]) - Long.bitCount(flipped[w] & ~taken[w]);
+            taken[w] ^= flipped[w];
+            sectionAvailable[section] += change;
+            seatTypeAvailable[layout.getSectionSeatType(section).ordinal()] += change;
+            available += change;
+            sectionView[section] = null;
+            sectionRangeView[section] = null;
+        }
+    }
+
+    /**
+     * Creates the next snapshot by flipping seats between free and taken
+     *
+     * @param flipped a bit set of the seats that were taken or freed since this snapshot
+     * @return the next snapshot
+     */
+    SeatMapSnapshot apply(long[] flipped) {
+        return new SeatMapSnapshot(this, flipped);
+    }
+
+    /**
+     * Gets the version of this snapshot. Every booking, cancellation or change to a hold adds one.
+     *
+     * @return the version of this snapshot
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks if a seat is free
+     *
+     * @param seatId the seat to check
+     * @return true if the seat is neither reserved nor held
+     */
+    public boolean isAvailable(SeatId seatId) {
+        return !isTaken(seatId.getIndex());
+    }
+
+    /**
+     * Checks if a seat is reserved or held
+     *
+     * @param index the position of the seat in the bit set
+     * @return true if the seat is reserved or held
+     */
+    private boolean isTaken(int index) {
+        return (taken[index / WORD_SIZE] & (1L << index)) != 0;
+    }
+
+    /**
+     * Counts all available seats
+     *
+     * @return the number of seats neither reserved nor held
+     */
+    public int countAvailableSeats() {
+        return available;
+    }
+
+    /**
+     * Counts the available seats of a particular seat type
+     *
+     * @param seatType the seat type to count
+     * @return the number of seats of that seat type neither reserved nor held
+     */
+    public int countAvailableSeats(SeatType seatType) {
+        return seatTypeAvailable[seatType.ordinal()];
+    }
+
+    /**
+     * Counts the available seats of a section
+     *
+     * @param section the position of the section in the {@link VenueLayout layout}
+     * @return the number of seats of that section neither reserved nor held
+     */
+    public int countAvailableSeats(int section) {
+        return sectionAvailable[section];
+    }
+
+    /**
+     * Gets the number of seats in the hall
+     *
+     * @return the number of seats in the hall
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Tells how full the show time is
+     *
+     * @return {@link SeatAvailability#SOLD_OUT SOLD_OUT} if no seat is available, {@link SeatAvailability#LOW LOW} if
+     * only a few seats are left, otherwise {@link SeatAvailability#AVAILABLE AVAILABLE}
+     */
+    public SeatAvailability getAvailability() {
+        if (available == 0) {
+            return SeatAvailability.SOLD_OUT;
+        } else if (available * 100 <= capacity * LOW_AVAILABILITY_PERCENT) {
+            return SeatAvailability.LOW;
+        }
+        return SeatAvailability.AVAILABLE;
+    }
+
+    /**
+     * Finds the first block of side by side seats that are neither reserved nor held within a seat type. A block never
+     * spans two sections.
+     *
+     * @param partySize the number of seats needed together
+     * @param seatType  the seat type to search
+     * @return the seat numbers of the block, separated by commas, or an empty String if there is no such block
+     */
+    public String findContiguousSeats(int partySize, SeatType seatType) {
+        for (int i = 0; i < sectionAvailable.length; i++) {
+            if (layout.getSectionSeatType(i) != seatType || partySize <= 0 || partySize > sectionAvailable[i]) {
+                continue;
+            }
+            int from = layout.getSectionOffset(i);
+            int start = findFreeRun(from, from + layout.getSectionSize(i), partySize);
+            if (start >= 0) {
+                StringBuilder builder = new StringBuilder();
+                for (int index = start; index < start + partySize; index++) {
+                    if (index != start) {
+                        builder.append(", ");
+                    }
+                    builder.append(layout.getSeatId(index));
+                }
+                return builder.toString();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Finds the length of the longest block of side by side seats that are neither reserved nor held within a
+     * seat type
+     *
+     * @param seatType the seat type to search
+     * @return the number of seats in the longest block, 0 if every seat of the seat type is taken
+     */
+    public int findLongestFreeRun(SeatType seatType) {
+        int longest = 0;
+        for (int i = 0; i < sectionAvailable.length; i++) {
+            if (layout.getSectionSeatType(i) != seatType || sectionAvailable[i] <= longest) {
+                continue;
+            }
+            int from = layout.getSectionOffset(i);
+            int to = from + layout.getSectionSize(i);
+            int start = nextSeat(from, to, true);
+            while (start < to) {
+                int end = nextSeat(start, to, false);
+                longest = Math.max(longest, end - start);
+                start = nextSeat(end, to, true);
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Finds the first run of free seats of at least a given length, jumping from run to run a word at a time
+     *
+     * @param from   first position to search, inclusive
+     * @param to     last position to search, exclusive
+     * @param length the number of free seats needed in a row
+     * @return the position of the first seat of the run, or -1 if there is no such run
+     */
+    private int findFreeRun(int from, int to, int length) {
+        int start = nextSeat(from, to, true);
+        while (start + length <= to) {
+            int end = nextSeat(start, to, false);
+            if (end - start >= length) {
+                return start;
+            }
+            start = nextSeat(end, to, true);
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the next free or taken seat, skipping whole words that have none
+     *
+     * @param from first position to search, inclusive
+     * @param to   last position to search, exclusive
+     * @param free true to find the next free seat, false to find the next taken seat
+     * @return the position of the seat found, or to if there is none
+     */
+    private int nextSeat(int from, int to, boolean free) {
+        if (from >= to) {
+            return to;
+        }
+        int w = from / WORD_SIZE;
+        long word = (free ? ~taken[w] : taken[w]) & (-1L << from);
+        while (word == 0) {
+            w++;
+            if (w * WORD_SIZE >= to) {
+                return to;
+            }
+            word = free ? ~taken[w] : taken[w];
+        }
+        return Math.min(w * WORD_SIZE + Long.numberOfTrailingZeros(word), to);
+    }
+
+    /**
+     * Compiles all available seat numbers, listing each section under its heading
+     *
+     * @param builder a {@see StringBuilder} to build a String containing required data
+     * @param ranges  true to list runs of available seats as ranges, for example "m1-m37"
+     */
+    private void printAvailableSeats(StringBuilder builder, boolean ranges) {
+        String heading = null;
+        for (int i = 0; i < sectionAvailable.length; i++) {
+            if (!layout.getSectionHeading(i).equals(heading)) {
+                heading = layout.getSectionHeading(i);
+                builder.append(heading).append(": \n");
+            }
+            builder.append(ranges ? getSectionRangeView(i) : getSectionView(i));
+        }
+    }
+
+    /**
+     * Gets the available seat numbers of a section, compiling them the first time they are asked for. Two readers
+     * may both compile the same list, which is harmless since both get the same text.
+     *
+     * @param section the section to compile
+     * @return a String containing the available seat numbers of the section
+     */
+    private String getSectionView(int section) {
+        String view = sectionView[section];
+        if (view == null) {
+            view = compileSeatNumbers(section);
+            sectionView[section] = view;
+        }
+        return view;
+    }
+
+    /**
+     * Gets the runs of available seats of a section as ranges, compiling them the first time they are asked for
+     *
+     * @param section the section to compile
+     * @return a String containing the available seats of the section, for example "m1-m37, m40-m50"
+     */
+    private String getSectionRangeView(int section) {
+        String view = sectionRangeView[section];
+        if (view == null) {
+            view = compileSeatRanges(section);
+            sectionRangeView[section] = view;
+        }
+        return view;
+    }
+
+    /**
+     * Compiles all available seat numbers of a section
+     *
+     * @param section the section to compile
+     * @return a String containing the available seat numbers of the section
+     */
+    private String compileSeatNumbers(int section) {
+        StringBuilder builder = new StringBuilder();
+        int size = layout.getSectionSize(section);
+        for (int i = 0; i < size; i++) {
+            if (!isTaken(layout.getSectionOffset(section) + i)) {
+                builder.append(layout.getSeatId(layout.getSectionOffset(section) + i));
+                if (!(i + 1 >= size))
+                    builder.append(", ");
+            }
+            if (i % 25 == 0 && i != 0) {
+                builder.append("\n");
+            }
+        }
+        builder.append("\n");
+        return builder.toString();
+    }
+
+    /**
+     * Compiles all runs of available seats of a section as ranges
+     *
+     * @param section the section to compile
+     * @return a String containing the available seats of the section, for example "m1-m37, m40-m50"
+     */
+    private String compileSeatRanges(int section) {
+        StringBuilder builder = new StringBuilder();
+        int to = layout.getSectionOffset(section) + layout.getSectionSize(section);
+        int start = nextSeat(layout.getSectionOffset(section), to, true);
+        while (start < to) {
+            int end = nextSeat(start, to, false);
+            if (builder.length() != 0) {
+                builder.append(", ");
+            }
+            builder.append(layout.getSeatId(start));
+            if (end - 1 > start) {
+                builder.append("-").append(layout.getSeatId(end - 1));
+            }
+            start = nextSeat(end, to, true);
+        }
+        builder.append("\n");
+        return builder.toString();
+    }
+
+    /**
+     * Shows all available seats
+     *
+     * @return a String containing all available seats
+     */
+    public String viewAvailableSeats() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Available Seats: \n");
+        printAvailableSeats(builder, false);
+        return builder.toString();
+    }
+
+    /**
+     * Shows all available seats as ranges of seats, for example "m1-m37, m40-m50"
+     *
+     * @return a String containing all available seats
+     */
+    public String viewAvailableSeatRanges() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Available Seats: \n");
+        printAvailableSeats(builder, true);
+        return builder.toString();
+    }
+}
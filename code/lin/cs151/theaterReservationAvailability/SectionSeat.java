@@ -4,269 +4,635 @@ import lin.cs151.reservationManager.ReservationManagerMode;
 import lin.cs151.reservationData.Reservation;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Handles seat availability for a corresponding show time
+ * Handles seat availability for a corresponding show time. Each seat is stored as a single bit, set when reserved.
+ * Seats can also be held for a limited time by a {@link SeatHold}, which keeps them in a second bit set until the hold
+ * is confirmed or expires.
+ * The seats are laid out by a {@link VenueLayout}. Every section has its own lock, so bookings for different sections
+ * of the same show time never wait on each other.
+ * Every change is published as a {@link SeatMapSnapshot snapshot} before the sections are unlocked. Seat lists, seat
+ * counts and seat searches all read the latest snapshot, so readers never wait on a booking and never see half of one.
  *
  * @author Raymond Lin
  */
 public class SectionSeat {
 
-    private final int MAIN_FLOOR_SECTION_MAX = 50;
-    private final int SOUTH_BALCONY_SECTION_MAX = 25;
-    private final int EAST_BALCONY_SECTION_MAX = 100;
-    private final int WEST_BALCONY_SECTION_MAX = 100;
+    private static final int WORD_SIZE = 64;
 
-    private boolean[] mainFloorLeft;
-    private boolean[] mainFloorRight;
-    private boolean[] mainFloorCenter;
-    private boolean[] southBalconyUpper;
-    private boolean[] southBalconyLower;
-    private boolean[] eastBalcony;
-    private boolean[] westBalcony;
-
-    private Map<SeatType, boolean[]> mapSeatType;
+    private VenueLayout layout;
+    private long[] seats;
+    private long[] held;
+    private ReentrantLock[] sectionLocks;
+    private AtomicReference<SeatMapSnapshot> snapshot;
+    private volatile Waitlist waitlist;
+    private volatile ShowtimeCommandLoop commandLoop;
 
     /**
-     * Creates a new instance of the seat availability manager
+     * Creates a new instance of the seat availability manager for the main hall
      */
     public SectionSeat() {
+        this(VenueLayout.getDefaultLayout());
+    }
+
+    /**
+     * Creates a new instance of the seat availability manager for a hall
+     *
+     * @param layout the {@link VenueLayout layout} of the hall
+     */
+    public SectionSeat(VenueLayout layout) {
+        this.layout = layout;
         loadSeats();
-        loadMap();
     }
 
     /**
-     * Creates storage of all available seats
+     * Creates storage of all available seats, one bit per seat, a lock for every section and the first snapshot
      */
     private void loadSeats() {
-        mainFloorLeft = new boolean[MAIN_FLOOR_SECTION_MAX];
-        mainFloorCenter = new boolean[MAIN_FLOOR_SECTION_MAX];
-        mainFloorRight = new boolean[MAIN_FLOOR_SECTION_MAX];
-        southBalconyLower = new boolean[SOUTH_BALCONY_SECTION_MAX];
-        southBalconyUpper = new boolean[SOUTH_BALCONY_SECTION_MAX];
-        eastBalcony = new boolean[EAST_BALCONY_SECTION_MAX];
-        westBalcony = new boolean[WEST_BALCONY_SECTION_MAX];
+        int numberOfSections = layout.getNumberOfSections();
+        seats = new long[layout.getNumberOfWords()];
+        held = new long[seats.length];
+        sectionLocks = new ReentrantLock[numberOfSections];
+        for (int i = 0; i < numberOfSections; i++) {
+            sectionLocks[i] = new ReentrantLock();
+        }
+        snapshot = new AtomicReference<>(new SeatMapSnapshot(layout));
+    }
+
+    /**
+     * Gets the layout of the hall
+     *
+     * @return the {@link VenueLayout layout} of the hall
+     */
+    public VenueLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Locks every section touched by a request. Locks are always taken in section order so two requests can never
+     * wait on each other.
+     *
+     * @param request a bit set holding the requested seats
+     * @return a bit mask of the sections that were locked
+     */
+    private long lockSections(long[] request) {
+        long sections = 0;
+        for (int w = 0; w < request.length; w++) {
+            if (request[w] != 0) {
+                sections |= 1L << layout.getWordSection(w);
+            }
+        }
+        for (int i = 0; i < sectionLocks.length; i++) {
+            if ((sections & (1L << i)) != 0) {
+                sectionLocks[i].lock();
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * Unlocks the sections locked by {@link #lockSections(long[])}
+     *
+     * @param sections a bit mask of the sections to unlock
+     */
+    private void unlockSections(long sections) {
+        for (int i = sectionLocks.length - 1; i >= 0; i--) {
+            if ((sections & (1L << i)) != 0) {
+                sectionLocks[i].unlock();
+            }
+        }
     }
 
     /**
-     * Maps out the seat type to the individual storage
+     * Gets the seat number of a position in the bit set
+     *
+     * @param index the position of the seat in the bit set
+     * @return the seat number, for example "m51"
      */
-    private void loadMap() {
-        mapSeatType = new TreeMap<>();
-        mapSeatType.put(SeatType.WEST_BALCONY, westBalcony);
-        mapSeatType.put(SeatType.EAST_BALCONY, eastBalcony);
-        mapSeatType.put(SeatType.SOUTH_BALCONY_UPPER, southBalconyUpper);
-        mapSeatType.put(SeatType.SOUTH_BALCONY_LOWER, southBalconyLower);
-        mapSeatType.put(SeatType.MAIN_FLOOR_CENTER, mainFloorCenter);
-        mapSeatType.put(SeatType.MAIN_FLOOR_RIGHT, mainFloorRight);
-        mapSeatType.put(SeatType.MAIN_FLOOR_LEFT, mainFloorLeft);
+    private String seatName(int index) {
+        return layout.getSeatId(index).toString();
     }
 
     /**
-     * Changes the availability of a particular seat number
+     * Reserves every seat in a request at once. Either every requested seat is reserved or none of them are.
+     * The sections touched by the request must already be locked.
      *
-     * @param idNumber the numeric seat number
-     * @param seatType the seat type to reserve
-     * @param mode     the mode that the {@link lin.cs151.reservationManager.ReservationManager ReservationManager} is in
-     * @return if specified seat was successfully reserved (inverted)
+     * @param request a bit set of the same size as this seat availability manager holding the seats to reserve
+     * @param target  the bit set to mark the seats in, either reserved or held seats
+     * @param flipped a bit set collecting the seats that went from free to taken or back, for {@link #publish(long[])}
+     * @throws SeatOverBookException if any requested seat was already reserved or held
      */
-    private boolean changeSeatReservationStatus(int idNumber, SeatType seatType, ReservationManagerMode mode) {
-        boolean[] seatTypeArray = mapSeatType.get(seatType);
-        if (mode == ReservationManagerMode.LOAD || mode == ReservationManagerMode.RESERVE) {
-            if (seatTypeArray[idNumber]) {
-                return true;
+    private void claimSeats(long[] request, long[] target, long[] flipped) throws SeatOverBookException {
+        for (int w = 0; w < seats.length; w++) {
+            if (request[w] == 0) {
+                continue;
+            }
+            long conflict = (seats[w] | held[w]) & request[w];
+            if (conflict != 0) {
+                throwSeatOverBook(w * WORD_SIZE + Long.numberOfTrailingZeros(conflict));
+            }
+        }
+        for (int w = 0; w < seats.length; w++) {
+            if (request[w] != 0) {
+                target[w] |= request[w];
+                flipped[w] ^= request[w];
             }
-            seatTypeArray[idNumber] = true;
-        } else {
-            seatTypeArray[idNumber] = false;
         }
-        return false;
     }
 
     /**
-     * Attempts to reserve a specified seat
+     * Releases every seat in a request at once. The sections touched by the request must already be locked.
      *
-     * @param seatNumber numeric component of seat number
-     * @param seatType   the seat type derived from seat number
-     * @param mode       the mode that the {@link lin.cs151.reservationManager.ReservationManager ReservationManager} is in
-     * @return successful reservation of seat
-     * @throws SeatOverBookException if seat was already reserved
+     * @param request a bit set of the same size as this seat availability manager holding the seats to release
+     * @param target  the bit set to clear the seats from, either reserved or held seats
+     * @param flipped a bit set collecting the seats that went from free to taken or back, for {@link #publish(long[])}
      */
-    private boolean reserve(int seatNumber, SeatType seatType, ReservationManagerMode mode) throws SeatOverBookException {
+    private void releaseSeats(long[] request, long[] target, long[] flipped) {
+        for (int w = 0; w < seats.length; w++) {
+            if (request[w] != 0) {
+                flipped[w] ^= target[w] & request[w];
+                target[w] &= ~request[w];
+            }
+        }
+    }
+
+    /**
+     * Publishes a new snapshot with the seats of a finished change flipped. The sections touched by the change must
+     * still be locked, so changes to the same section are published in the order they were made. Changes to other
+     * sections only flip other seats, so it does not matter which of them is published first.
+     *
+     * @param flipped a bit set of the seats that went from free to taken or back
+     */
+    private void publish(long[] flipped) {
+        boolean changed = false;
+        for (long word : flipped) {
+            changed |= word != 0;
+        }
+        if (!changed) {
+            return;
+        }
+        SeatMapSnapshot current;
+        do {
+            current = snapshot.get();
+        } while (!snapshot.compareAndSet(current, current.apply(flipped)));
+    }
+
+    /**
+     * Reports a seat that could not be reserved
+     *
+     * @param index the position of the seat in the bit set
+     * @throws SeatOverBookException always
+     */
+    private void throwSeatOverBook(int index) throws SeatOverBookException {
         String generalErrorMessage = "We did not attempt to reserve any of the above mentioned seats. Please try again.";
-        int seatAdjust = seatNumber - 1;
-        switch (seatType) {
-            case MAIN_FLOOR_LEFT:
-                if (changeSeatReservationStatus(seatAdjust, seatType, mode)) {
-                    throw new SeatOverBookException("Seat m" + seatNumber + " already reserved." + generalErrorMessage);
-                }
-                break;
-            case MAIN_FLOOR_RIGHT:
-                seatAdjust = seatAdjust - MAIN_FLOOR_SECTION_MAX;
-                if (changeSeatReservationStatus(seatAdjust, seatType, mode)) {
-                    throw new SeatOverBookException("Seat m" + seatNumber + " already reserved." + generalErrorMessage);
+        throw new SeatOverBookException("Seat " + seatName(index) + " already reserved." + generalErrorMessage);
+    }
+
+    /**
+     * Gets the latest snapshot of the seats. Several reads from the same snapshot always agree with each other.
+     *
+     * @return the latest {@link SeatMapSnapshot snapshot}
+     */
+    public SeatMapSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Counts all available seats for this show time
+     *
+     * @return the number of seats neither reserved nor held
+     */
+    public int countAvailableSeats() {
+        return snapshot.get().countAvailableSeats();
+    }
+
+    /**
+     * Counts the available seats of a particular seat type for this show time
+     *
+     * @param seatType the seat type to count
+     * @return the number of seats of that seat type neither reserved nor held
+     */
+    public int countAvailableSeats(SeatType seatType) {
+        return snapshot.get().countAvailableSeats(seatType);
+    }
+
+    /**
+     * Counts the available seats of a section for this show time
+     *
+     * @param section the position of the section in the {@link VenueLayout layout}
+     * @return the number of seats of that section neither reserved nor held
+     */
+    public int countAvailableSeats(int section) {
+        return snapshot.get().countAvailableSeats(section);
+    }
+
+    /**
+     * Gets the number of seats in the hall
+     *
+     * @return the number of seats in the hall
+     */
+    public int getCapacity() {
+        return snapshot.get().getCapacity();
+    }
+
+    /**
+     * Tells how full this show time is
+     *
+     * @return how full the show time is as defined by {@link SeatAvailability}
+     */
+    public SeatAvailability getAvailability() {
+        return snapshot.get().getAvailability();
+    }
+
+    /**
+     * Finds the first block of side by side seats that are neither reserved nor held within a seat type. A block never
+     * spans two sections.
+     *
+     * @param partySize the number of seats needed together
+     * @param seatType  the seat type to search
+     * @return the seat numbers of the block, separated by commas, or an empty String if there is no such block
+     */
+    public String findContiguousSeats(int partySize, SeatType seatType) {
+        return snapshot.get().findContiguousSeats(partySize, seatType);
+    }
+
+    /**
+     * Finds the length of the longest block of side by side seats that are neither reserved nor held within a
+     * seat type
+     *
+     * @param seatType the seat type to search
+     * @return the number of seats in the longest block, 0 if every seat of the seat type is taken
+     */
+    public int findLongestFreeRun(SeatType seatType) {
+        return snapshot.get().findLongestFreeRun(seatType);
+    }
+
+    /**
+     * Will attempt to reserve a list of seat numbers. Every seat number is checked before any seat is changed, so
+     * either the whole list is reserved (or cancelled) or nothing is.
+     *
+     * @param arrayOfSeatID a list of seat numbers
+     * @param reservation   the reservation to associate reserved seats with
+     * @param mode          the mode that the {@link lin.cs151.reservationManager.ReservationManager ReservationManager} is in
+     * @throws SeatOverBookException     if the seat has already been reserved
+     * @throws SeatDoesNotExistException if the specified seat number does not exist
+     */
+    public void reserveSeats(String arrayOfSeatID, Reservation reservation, ReservationManagerMode mode) throws SeatOverBookException, SeatDoesNotExistException {
+        List<SeatId> requested = new ArrayList<>();
+        long[] request = parseSeatRequest(arrayOfSeatID, mode, requested);
+        if (mode == ReservationManagerMode.CANCEL) {
+            releaseSeatHolds(request, reservation);
+        }
+        long lockedSections = lockSections(request);
+        try {
+            long[] flipped = new long[seats.length];
+            if (mode == ReservationManagerMode.CANCEL) {
+                releaseSeats(request, seats, flipped);
+            } else {
+                claimSeats(request, seats, flipped);
+            }
+            publish(flipped);
+        } finally {
+            unlockSections(lockedSections);
+        }
+        if (mode == ReservationManagerMode.CANCEL) {
+            for (SeatId seatId : requested) {
+                if (reservation.checkSeatIDPresent(seatId.toString())) {
+                    reservation.removeReservedSeat(seatId.toString());
                 }
-                break;
-            case MAIN_FLOOR_CENTER:
-                seatAdjust = seatAdjust - (2 * MAIN_FLOOR_SECTION_MAX);
-                if (changeSeatReservationStatus(seatAdjust, seatType, mode)) {
-                    throw new SeatOverBookException("Seat m" + seatNumber + " already reserved." + generalErrorMessage);
+            }
+            promoteWaitlist();
+        } else if (mode == ReservationManagerMode.RESERVE) {
+            for (SeatId seatId : requested) {
+                reservation.addSeats(seatId.toString());
+            }
+        }
+    }
+
+    /**
+     * Reserves the seats of many reservations at once. The sections involved are locked once for the whole batch and
+     * the changes are published as one snapshot. Each reservation is still reserved completely or not at all, in the
+     * order given, so a later reservation asking for a seat an earlier one got fails.
+     *
+     * @param seatRequests the seat numbers of each reservation, separated by commas
+     * @param reservations the reservations to add the reserved seats to, in the same order
+     * @return for each reservation, null if its seats were reserved, otherwise the exception telling why not
+     */
+    public List<Exception> reserveSeats(List<String> seatRequests, List<Reservation> reservations) {
+        int size = seatRequests.size();
+        List<Exception> errors = new ArrayList<>(Collections.nCopies(size, null));
+        long[][] requests = new long[size][];
+        List<List<SeatId>> requested = new ArrayList<>(size);
+        long[] allRequests = new long[seats.length];
+        for (int i = 0; i < size; i++) {
+            requested.add(new ArrayList<>());
+            try {
+                requests[i] = parseSeatRequest(seatRequests.get(i), ReservationManagerMode.RESERVE, requested.get(i));
+                if (requested.get(i).isEmpty()) {
+                    throw new SeatDoesNotExistException("No seats were requested. Please choose at least one seat.");
                 }
-                break;
-            case SOUTH_BALCONY_UPPER:
-                if (changeSeatReservationStatus(seatAdjust, seatType, mode)) {
-                    throw new SeatOverBookException("Seat sb" + seatNumber + " already reserved." + generalErrorMessage);
+                for (int w = 0; w < seats.length; w++) {
+                    allRequests[w] |= requests[i][w];
                 }
-                break;
-            case SOUTH_BALCONY_LOWER:
-                seatAdjust = seatAdjust - SOUTH_BALCONY_SECTION_MAX;
-                if (changeSeatReservationStatus(seatAdjust, seatType, mode)) {
-                    throw new SeatOverBookException("Seat sb" + seatNumber + " already reserved." + generalErrorMessage);
+            } catch (SeatOverBookException | SeatDoesNotExistException e) {
+                errors.set(i, e);
+                requests[i] = null;
+            }
+        }
+        long lockedSections = lockSections(allRequests);
+        try {
+            long[] flipped = new long[seats.length];
+            for (int i = 0; i < size; i++) {
+                if (requests[i] == null) {
+                    continue;
                 }
-                break;
-            case EAST_BALCONY:
-                if (changeSeatReservationStatus(seatAdjust, seatType, mode)) {
-                    throw new SeatOverBookException("Seat eb" + seatNumber + " already reserved." + generalErrorMessage);
+                try {
+                    claimSeats(requests[i], seats, flipped);
+                } catch (SeatOverBookException e) {
+                    errors.set(i, e);
+                    requests[i] = null;
                 }
-                break;
-            case WEST_BALCONY:
-                if (changeSeatReservationStatus(seatAdjust, seatType, mode)) {
-                    throw new SeatOverBookException("Seat wb" + seatNumber + " already reserved." + generalErrorMessage);
+            }
+            publish(flipped);
+        } finally {
+            unlockSections(lockedSections);
+        }
+        for (int i = 0; i < size; i++) {
+            if (requests[i] != null) {
+                for (SeatId seatId : requested.get(i)) {
+                    reservations.get(i).addSeats(seatId.toString());
                 }
-                break;
+            }
         }
-        return true;
+        return errors;
     }
 
     /**
-     * Will attempt to reserve a list of seat numbers
+     * Will attempt to hold a list of seat numbers until a given time. Like {@link #reserveSeats(String, Reservation, ReservationManagerMode) reserveSeats},
+     * either every seat is held or none are.
      *
      * @param arrayOfSeatID a list of seat numbers
-     * @param reservation   the reservation to associate reserved seats with
-     * @param mode          the mode that the {@link lin.cs151.reservationManager.ReservationManager ReservationManager} is in
-     * @throws SeatOverBookException     if the seat has already been reserved
+     * @param reservation   the reservation to associate held seats with
+     * @param expiresAt     the time in milliseconds, see {@link System#currentTimeMillis()}, when the hold expires
+     * @return the new {@link SeatHold hold}
+     * @throws SeatOverBookException     if the seat has already been reserved or held
      * @throws SeatDoesNotExistException if the specified seat number does not exist
      */
-    public void reserveSeats(String arrayOfSeatID, Reservation reservation, ReservationManagerMode mode) throws SeatOverBookException, SeatDoesNotExistException {
-        String[] seatID = parseStringToStringArray(arrayOfSeatID);
-        for (String s : seatID) {
-            SeatType seatType = determineSeatType(s);
-            int seatNumber = Integer.parseInt(s.replaceAll("[^\\d.]", ""));
-            if (mode == ReservationManagerMode.RESERVE) {
-                if (reserve(seatNumber, seatType, mode)) {
-                    reservation.addSeats(s);
+    public SeatHold holdSeats(String arrayOfSeatID, Reservation reservation, long expiresAt) throws SeatOverBookException, SeatDoesNotExistException {
+        List<SeatId> requested = new ArrayList<>();
+        long[] request = parseSeatRequest(arrayOfSeatID, ReservationManagerMode.HOLD, requested);
+        long lockedSections = lockSections(request);
+        try {
+            long[] flipped = new long[seats.length];
+            claimSeats(request, held, flipped);
+            publish(flipped);
+        } finally {
+            unlockSections(lockedSections);
+        }
+        List<String> heldSeatIDs = new ArrayList<>();
+        for (SeatId seatId : requested) {
+            reservation.addSeats(seatId.toString());
+            heldSeatIDs.add(seatId.toString());
+        }
+        SeatHold hold = new SeatHold(this, reservation, request, heldSeatIDs, expiresAt);
+        reservation.addSeatHold(hold);
+        return hold;
+    }
+
+    /**
+     * Turns a {@link SeatHold hold} into reserved seats. If the hold already expired, its seats are reserved again
+     * if nobody else has taken them; otherwise they are removed from the {@link Reservation reservation}.
+     *
+     * @param hold the hold to confirm
+     * @throws SeatOverBookException if the hold expired and one of its seats was reserved by someone else
+     */
+    public void confirmSeatHold(SeatHold hold) throws SeatOverBookException {
+        synchronized (hold) {
+            if (hold.isConfirmed()) {
+                return;
+            }
+            long[] request = hold.getSeats();
+            long lockedSections = lockSections(request);
+            try {
+                long[] flipped = new long[seats.length];
+                if (!hold.isExpired()) {
+                    releaseSeats(request, held, flipped);
                 }
-            } else if (mode == ReservationManagerMode.CANCEL) {
-                if (reserve(seatNumber, seatType, mode)) {
-                    reservation.removeReservedSeat(s);
+                claimSeats(request, seats, flipped);
+                publish(flipped);
+                hold.setConfirmed();
+            } catch (SeatOverBookException e) {
+                Reservation reservation = hold.getReservation();
+                for (String s : hold.getSeatIDs()) {
+                    if (reservation.checkSeatIDPresent(s)) {
+                        reservation.removeReservedSeat(s);
+                    }
                 }
-            } else if (mode == ReservationManagerMode.LOAD) {
-                reserve(seatNumber, seatType, mode);
+                Arrays.fill(request, 0);
+                throw new SeatOverBookException("The hold on seats " + String.join(", ", hold.getSeatIDs()) + " expired and they were reserved by someone else. They have been removed from your reservation.");
+            } finally {
+                unlockSections(lockedSections);
             }
         }
     }
 
     /**
-     * Counts the number of seats types in a particular {@link Reservation reservation} for {@link lin.cs151.ticketCost.ReservationPriceCalculator ReservationPriceCalculator}
+     * Releases the seats of a {@link SeatHold hold} that has timed out
      *
-     * @param seatCount a mapping of the seat type and the number counted so far
-     * @param seatIDs   the list of seat numbers from a {@link Reservation reservation}
+     * @param hold the hold to release
      */
-    public void determineSeatTypeAndCount(Map<SeatType, Integer> seatCount, List<String> seatIDs) {
-        try {
-            for (String s : seatIDs) {
-                SeatType seatType = determineSeatType(s); // determine seat type
-                int currentCount = seatCount.get(seatType); // get count for seat type
-                currentCount++; // increment count
-                seatCount.put(seatType, currentCount); // put it back into seatCount
+    void expireSeatHold(SeatHold hold) {
+        synchronized (hold) {
+            if (hold.isConfirmed() || hold.isExpired()) {
+                return;
+            }
+            long[] request = hold.getSeats();
+            long lockedSections = lockSections(request);
+            try {
+                long[] flipped = new long[seats.length];
+                releaseSeats(request, held, flipped);
+                publish(flipped);
+                hold.setExpired();
+            } finally {
+                unlockSections(lockedSections);
             }
-        } catch (SeatDoesNotExistException e) {
-            // shouldn't happen
         }
+        promoteWaitlist();
+    }
+
+    /**
+     * Gets the {@link Waitlist waitlist} of this show time
+     *
+     * @return the waitlist, or null if nobody has joined one for this show time
+     */
+    Waitlist getWaitlist() {
+        return waitlist;
     }
 
     /**
-     * Determines a seat type from the seat number
+     * Sets the {@link Waitlist waitlist} that is offered seats whenever seats of this show time are released
      *
-     * @param seatID the seat number to determine a seat type
-     * @return a seat type as defined by {@link SeatType}
-     * @throws SeatDoesNotExistException if the seat number does not have a defined seat type
+     * @param waitlist the waitlist for this show time
      */
-    private SeatType determineSeatType(String seatID) throws SeatDoesNotExistException {
-        String seatLoc = seatID.replaceAll("[^A-Za-z]", "");
-        int seatNumber = Integer.parseInt(seatID.replaceAll("[^\\d.]", ""));
-        if (seatLoc.compareToIgnoreCase("m") == 0) {
-            if (seatNumber <= 50) {
-                return SeatType.MAIN_FLOOR_LEFT;
-            } else if (seatNumber <= 100) {
-                return SeatType.MAIN_FLOOR_RIGHT;
-            } else if (seatNumber <= 150) {
-                return SeatType.MAIN_FLOOR_CENTER;
+    void setWaitlist(Waitlist waitlist) {
+        this.waitlist = waitlist;
+    }
+
+    /**
+     * Gets the {@link ShowtimeCommandLoop command loop} every change to these seats goes through
+     *
+     * @return the command loop, or null if changes are made on the calling thread
+     */
+    ShowtimeCommandLoop getCommandLoop() {
+        return commandLoop;
+    }
+
+    /**
+     * Sets the {@link ShowtimeCommandLoop command loop} every change to these seats goes through
+     *
+     * @param commandLoop the command loop, or null to make changes on the calling thread
+     */
+    void setCommandLoop(ShowtimeCommandLoop commandLoop) {
+        this.commandLoop = commandLoop;
+    }
+
+    /**
+     * Offers released seats to the {@link Waitlist waitlist}, if there is one. No section may be locked by the caller.
+     */
+    private void promoteWaitlist() {
+        Waitlist current = waitlist;
+        if (current != null) {
+            current.promote();
+        }
+    }
+
+    /**
+     * Removes cancelled seats from any unconfirmed {@link SeatHold holds} of a reservation. Those seats are taken out of
+     * the request so that a seat whose hold expired is never released from under whoever reserved it since.
+     *
+     * @param request     a bit set holding the seats to cancel
+     * @param reservation the reservation cancelling the seats
+     */
+    private void releaseSeatHolds(long[] request, Reservation reservation) {
+        for (SeatHold hold : reservation.getSeatHolds()) {
+            if (hold.getSectionSeat() != this) {
+                continue;
             }
-        } else if (seatLoc.compareToIgnoreCase("sb") == 0) {
-            if (seatNumber <= 25) {
-                return SeatType.SOUTH_BALCONY_UPPER;
-            } else if (seatNumber <= 50) {
-                return SeatType.SOUTH_BALCONY_LOWER;
+            synchronized (hold) {
+                if (hold.isConfirmed()) {
+                    continue;
+                }
+                long[] holdSeats = hold.getSeats();
+                long[] cancelled = new long[holdSeats.length];
+                for (int w = 0; w < holdSeats.length; w++) {
+                    cancelled[w] = holdSeats[w] & request[w];
+                    holdSeats[w] &= ~request[w];
+                    request[w] &= ~cancelled[w];
+                }
+                for (int index = nextRequestedSeat(cancelled, 0); index >= 0; index = nextRequestedSeat(cancelled, index + 1)) {
+                    hold.getSeatIDs().remove(seatName(index));
+                }
+                if (!hold.isExpired()) {
+                    long lockedSections = lockSections(cancelled);
+                    try {
+                        long[] flipped = new long[seats.length];
+                        releaseSeats(cancelled, held, flipped);
+                        publish(flipped);
+                    } finally {
+                        unlockSections(lockedSections);
+                    }
+                }
             }
-        } else if (seatLoc.compareToIgnoreCase("wb") == 0) {
-            return SeatType.WEST_BALCONY;
-        } else if (seatLoc.compareToIgnoreCase("eb") == 0) {
-            return SeatType.EAST_BALCONY;
         }
-        throw new SeatDoesNotExistException("One of the seats you have attempted to select does not exist. We did not attempt to add any seats. Please try again.");
     }
 
     /**
-     * Parses a whole string of multiple seat numbers into an array of seat numbers
+     * Converts a list of seat numbers separated by commas into a bit set. The list is scanned in place, so no
+     * substrings are created for the individual seat numbers.
      *
-     * @param stringArray a whole string of multiple seat numbers needed to be parsed
-     * @return a list of seat numbers
+     * @param arrayOfSeatID a list of seat numbers
+     * @param mode          the mode that the {@link lin.cs151.reservationManager.ReservationManager ReservationManager} is in
+     * @param requested     a list to add every requested {@link SeatId} to, in the order they were typed
+     * @return a bit set of the same size as this seat availability manager holding the requested seats
+     * @throws SeatOverBookException     if the same seat is requested twice
+     * @throws SeatDoesNotExistException if the specified seat number does not exist
      */
-    private String[] parseStringToStringArray(String stringArray) {
-        return stringArray.split(", ");
+    private long[] parseSeatRequest(String arrayOfSeatID, ReservationManagerMode mode, List<SeatId> requested) throws SeatOverBookException, SeatDoesNotExistException {
+        long[] request = new long[seats.length];
+        int length = arrayOfSeatID.length();
+        int position = 0;
+        while (position < length) {
+            char c = arrayOfSeatID.charAt(position);
+            if (c == ',' || Character.isWhitespace(c)) {
+                position++;
+                continue;
+            }
+            int start = position;
+            while (position < length && arrayOfSeatID.charAt(position) != ',') {
+                position++;
+            }
+            int end = position;
+            while (Character.isWhitespace(arrayOfSeatID.charAt(end - 1))) {
+                end--;
+            }
+            SeatId seatId = layout.parseSeatId(arrayOfSeatID, start, end);
+            int index = seatId.getIndex();
+            long bit = 1L << index;
+            if ((request[index / WORD_SIZE] & bit) != 0) {
+                if (mode != ReservationManagerMode.CANCEL) {
+                    // the same seat was typed twice
+                    throwSeatOverBook(index);
+                }
+                continue;
+            }
+            request[index / WORD_SIZE] |= bit;
+            requested.add(seatId);
+        }
+        return request;
     }
 
     /**
-     * Compiles all available seat numbers for this seat availability manager
+     * Finds the next seat in a request
      *
-     * @param builder a {@see StringBuilder} to build a String containing required data
+     * @param request a bit set holding the requested seats
+     * @param from    the position to start searching from, inclusive
+     * @return the position of the next requested seat, or -1 if there are no more
      */
-    private void printAvailableSeats(StringBuilder builder) {
-        builder.append("Main Floor: \n");
-        printSeatNumbers(builder, "m", mainFloorLeft, 0);
-        printSeatNumbers(builder, "m", mainFloorRight, MAIN_FLOOR_SECTION_MAX);
-        printSeatNumbers(builder, "m", mainFloorCenter, 2 * MAIN_FLOOR_SECTION_MAX);
-        builder.append("South Balcony: \n");
-        printSeatNumbers(builder, "sb", southBalconyUpper, 0);
-        printSeatNumbers(builder, "sb", southBalconyLower, SOUTH_BALCONY_SECTION_MAX);
-        builder.append("West Balcony: \n");
-        printSeatNumbers(builder, "wb", westBalcony, 0);
-        builder.append("East Balcony: \n");
-        printSeatNumbers(builder, "eb", eastBalcony, 0);
+    private int nextRequestedSeat(long[] request, int from) {
+        int w = from / WORD_SIZE;
+        if (w >= request.length) {
+            return -1;
+        }
+        long word = request[w] & (-1L << from);
+        while (word == 0) {
+            w++;
+            if (w >= request.length) {
+                return -1;
+            }
+            word = request[w];
+        }
+        return w * WORD_SIZE + Long.numberOfTrailingZeros(word);
     }
 
     /**
-     * Compiles all unavailable  seat numbers by seat type in this instance of the seat availability manager
+     * Counts the number of seats types in a particular {@link Reservation reservation} for {@link lin.cs151.ticketCost.ReservationPriceCalculator ReservationPriceCalculator}
      *
-     * @param builder  the {@see StringBuilder} to use
-     * @param seatType the characters of a seat type to use
-     * @param array    a boolean array detailing availability of a particular seat number
-     * @param offset   a predefined offset set by this instance of the seat availability manager
+     * @param seatCount a mapping of the seat type and the number counted so far
+     * @param seatIDs   the list of seat numbers from a {@link Reservation reservation}
      */
-    private void printSeatNumbers(StringBuilder builder, String seatType, boolean[] array, int offset) {
-        for (int i = 0; i < array.length; i++) {
-            if (!array[i]) {
-                builder.append(seatType);
-                builder.append(i + 1 + offset);
-                if (!(i + 1 >= array.length))
-                    builder.append(", ");
-            }
-            if (i % 25 == 0 && i != 0) {
-                builder.append("\n");
+    public void determineSeatTypeAndCount(Map<SeatType, Integer> seatCount, List<String> seatIDs) {
+        try {
+            for (String s : seatIDs) {
+                SeatType seatType = layout.parseSeatId(s).getSeatType(); // determine seat type
+                int currentCount = seatCount.get(seatType); // get count for seat type
+                currentCount++; // increment count
+                seatCount.put(seatType, currentCount); // put it back into seatCount
             }
+        } catch (SeatDoesNotExistException e) {
+            // shouldn't happen
         }
-        builder.append("\n");
     }
 
     /**
@@ -275,9 +641,15 @@ public class SectionSeat {
      * @return a String containing all available seats
      */
     public String viewAvailableSeats() {
-        StringBuilder builder = new StringBuilder();
-        builder.append("Available Seats: \n");
-        printAvailableSeats(builder);
-        return builder.toString();
+        return snapshot.get().viewAvailableSeats();
+    }
+
+    /**
+     * Compiles all available seats for this instance of the seat availability manager as ranges of seats
+     *
+     * @return a String containing all available seats, for example "m1-m37, m40-m50"
+     */
+    public String viewAvailableSeatRanges() {
+        return snapshot.get().viewAvailableSeatRanges();
     }
 }
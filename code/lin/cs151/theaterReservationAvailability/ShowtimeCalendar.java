@@ -0,0 +1,122 @@
+package lin.cs151.theaterReservationAvailability;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * A sorted, read only list of show times. Show times are kept in an array so a show time can be picked by its
+ * position without walking the list, and date ranges are found by binary search.
+ *
+ * @author Raymond Lin
+ */
+public class ShowtimeCalendar {
+
+    private LocalDateTime[] showtimes;
+
+    /**
+     * Creates a new calendar. Duplicate show times are only listed once.
+     *
+     * @param showtimes the show times to list, in any order
+     */
+    public ShowtimeCalendar(Collection<LocalDateTime> showtimes) {
+        loadShowtimes(showtimes);
+    }
+
+    /**
+     * Sorts the show times and drops any duplicates
+     *
+     * @param showtimes the show times to list
+     */
+    private void loadShowtimes(Collection<LocalDateTime> showtimes) {
+        this.showtimes = new TreeSet<>(showtimes).toArray(new LocalDateTime[0]);
+    }
+
+    /**
+     * Gets the number of show times in the calendar
+     *
+     * @return the number of show times
+     */
+    public int size() {
+        return showtimes.length;
+    }
+
+    /**
+     * Gets a show time by its position in the calendar
+     *
+     * @param position the position of the show time, starting at 0
+     * @return the show time, or null if there is no show time at that position
+     */
+    public LocalDateTime getShowtime(int position) {
+        if (position < 0 || position >= showtimes.length) {
+            return null;
+        }
+        return showtimes[position];
+    }
+
+    /**
+     * Gets the position of a show time in the calendar
+     *
+     * @param showtime the show time to find
+     * @return the position of the show time, or -1 if it is not in the calendar
+     */
+    public int indexOf(LocalDateTime showtime) {
+        int position = Arrays.binarySearch(showtimes, showtime);
+        return position < 0 ? -1 : position;
+    }
+
+    /**
+     * Gets the position of the first show time at or after a given time
+     *
+     * @param dateTime the time to search from
+     * @return the position of the first show time not before dateTime, or {@link #size()} if there is none
+     */
+    public int firstIndexFrom(LocalDateTime dateTime) {
+        int position = Arrays.binarySearch(showtimes, dateTime);
+        return position < 0 ? -position - 1 : position;
+    }
+
+    /**
+     * Gets all show times from one time up to, but not including, another
+     *
+     * @param from the earliest show time to include
+     * @param to   the show time to stop at
+     * @return a read only list of the show times in order
+     */
+    public List<LocalDateTime> getShowtimes(LocalDateTime from, LocalDateTime to) {
+        int start = firstIndexFrom(from);
+        int end = Math.max(start, firstIndexFrom(to));
+        return Collections.unmodifiableList(Arrays.asList(showtimes).subList(start, end));
+    }
+
+    /**
+     * Gets all show times between two dates that start within a given time of day
+     *
+     * @param firstDay the first day to include
+     * @param lastDay  the last day to include
+     * @param earliest the earliest time of day to include
+     * @param latest   the latest time of day to include
+     * @return a list of the matching show times in order
+     */
+    public List<LocalDateTime> getShowtimes(LocalDate firstDay, LocalDate lastDay, LocalTime earliest, LocalTime latest) {
+        List<LocalDateTime> matches = new ArrayList<>();
+        for (LocalDateTime showtime : getShowtimes(firstDay.atStartOfDay(), lastDay.plusDays(1).atStartOfDay())) {
+            LocalTime time = showtime.toLocalTime();
+            if (!time.isBefore(earliest) && !time.isAfter(latest)) {
+                matches.add(showtime);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Gets the number of pages needed to list every show time
+     *
+     * @param pageSize the number of show times on each page
+     * @return the number of pages, at least 1
+     */
+    public int getNumberOfPages(int pageSize) {
+        return Math.max(1, (showtimes.length + pageSize - 1) / pageSize);
+    }
+}
@@ -0,0 +1,238 @@
+package lin.cs151.theaterReservationAvailability;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs every change to the seats of one show time on a single writer thread. Callers put commands into a ring buffer
+ * and get a {@link CompletableFuture future} back; the writer takes them out in the order they were put in and runs
+ * them one after another, so bookings never fight over the section locks and run in a fixed order.
+ * While commands keep coming the writer runs them back to back without sleeping; it only parks once the buffer is
+ * empty. When the buffer is full, callers wait for the writer to catch up, spinning briefly and then parking for
+ * longer and longer so that a burst of callers does not take a core each.
+ * The writer completes futures itself, so work chained onto a future should use the async methods of
+ * {@link CompletableFuture} to stay off the writer thread.
+ *
+ * @author Raymond Lin
+ */
+public class ShowtimeCommandLoop {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int SPINS_BEFORE_PARKING = 100;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    private SectionSeat sectionSeat;
+    private AtomicReferenceArray<Command<?>> ring;
+    private int mask;
+    private AtomicLong tail;
+    private volatile long head;
+    private volatile boolean sleeping;
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * A change to the seats of a show time
+     *
+     * @param <T> the type of the result
+     */
+    interface SeatCommand<T> {
+
+        /**
+         * Makes the change
+         *
+         * @param seats the seats of the show time
+         * @return the result of the change
+         * @throws SeatOverBookException     if a seat is already reserved or held
+         * @throws SeatDoesNotExistException if a seat does not exist
+         */
+        T execute(SectionSeat seats) throws SeatOverBookException, SeatDoesNotExistException;
+    }
+
+    /**
+     * A command waiting in the ring buffer, with the future to complete once it has run
+     *
+     * @param <T> the type of the result
+     */
+    private static class Command<T> {
+
+        private SeatCommand<T> action;
+        private CompletableFuture<T> result;
+
+        /**
+         * Creates a new command
+         *
+         * @param action the change to make
+         * @param result the future to complete
+         */
+        Command(SeatCommand<T> action, CompletableFuture<T> result) {
+            this.action = action;
+            this.result = result;
+        }
+
+        /**
+         * Makes the change and completes the future with its result or error
+         *
+         * @param seats the seats of the show time
+         */
+        void run(SectionSeat seats) {
+            try {
+                result.complete(action.execute(seats));
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Creates a command loop for the seats of a show time and starts its writer thread
+     *
+     * @param sectionSeat the seats of the show time
+     * @param name        a name for the writer thread
+     */
+    ShowtimeCommandLoop(SectionSeat sectionSeat, String name) {
+        this(sectionSeat, name, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a command loop for the seats of a show time and starts its writer thread
+     *
+     * @param sectionSeat the seats of the show time
+     * @param name        a name for the writer thread
+     * @param capacity    the number of commands that can wait in the ring buffer, rounded up to a power of two
+     */
+    ShowtimeCommandLoop(SectionSeat sectionSeat, String name, int capacity) {
+        this.sectionSeat = sectionSeat;
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.tail = new AtomicLong();
+        this.head = 0;
+        this.sleeping = false;
+        this.running = true;
+        this.writer = new Thread(this::runCommands, name);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Makes a change to the seats of a show time, through its command loop if it has one, otherwise right away on the
+     * calling thread
+     *
+     * @param seats  the seats of the show time
+     * @param action the change to make
+     * @param <T>    the type of the result
+     * @return a future completed with the result of the change, or with the exception it threw
+     */
+    static <T> CompletableFuture<T> submit(SectionSeat seats, SeatCommand<T> action) {
+        ShowtimeCommandLoop commandLoop = seats.getCommandLoop();
+        if (commandLoop != null) {
+            return commandLoop.submit(action);
+        }
+        Command<T> command = new Command<>(action, new CompletableFuture<>());
+        command.run(seats);
+        return command.result;
+    }
+
+    /**
+     * Puts a command into the ring buffer. A command sent by the writer itself, for example when a cancellation seats
+     * the waitlist, or sent after the loop was stopped, is run right away on the calling thread.
+     *
+     * @param action the change to make
+     * @param <T>    the type of the result
+     * @return a future completed with the result of the change, or with the exception it threw
+     */
+    <T> CompletableFuture<T> submit(SeatCommand<T> action) {
+        Command<T> command = new Command<>(action, new CompletableFuture<>());
+        if (!running || Thread.currentThread() == writer) {
+            command.run(sectionSeat);
+            return command.result;
+        }
+        long sequence = tail.getAndIncrement();
+        int slot = (int) sequence & mask;
+        int attempts = 0;
+        while (sequence - head > mask) {
+            // the buffer is full, wait for the writer to catch up
+            if (!running) {
+                command.run(sectionSeat);
+                return command.result;
+            }
+            LockSupport.unpark(writer);
+            backOff(attempts++);
+        }
+        ring.set(slot, command);
+        if (sleeping) {
+            LockSupport.unpark(writer);
+        }
+        if (!running && ring.compareAndSet(slot, command, null)) {
+            // the writer stopped before it got to this command
+            command.run(sectionSeat);
+        }
+        return command.result;
+    }
+
+    /**
+     * Waits before a caller checks again whether the writer has made room in the ring buffer. The first checks only
+     * spin, since the writer usually frees a slot right away; after that the caller parks, twice as long each time up
+     * to a millisecond.
+     *
+     * @param attempt how many times the caller has checked already
+     */
+    private static void backOff(int attempt) {
+        if (attempt < SPINS_BEFORE_PARKING) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L << Math.min(attempt - SPINS_BEFORE_PARKING, 10)));
+        }
+    }
+
+    /**
+     * Runs commands in order until the loop is stopped, then runs whatever is left in the ring buffer
+     */
+    private void runCommands() {
+        long next = head;
+        while (running) {
+            int slot = (int) next & mask;
+            Command<?> command = ring.get(slot);
+            if (command == null) {
+                sleeping = true;
+                if (ring.get(slot) == null && running) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+                continue;
+            }
+            boolean taken = ring.compareAndSet(slot, command, null);
+            head = ++next;
+            if (taken) {
+                command.run(sectionSeat);
+            }
+        }
+        for (int i = 0; i <= mask; i++) {
+            int slot = (int) (next + i) & mask;
+            Command<?> command = ring.get(slot);
+            if (command != null && ring.compareAndSet(slot, command, null)) {
+                command.run(sectionSeat);
+            }
+        }
+    }
+
+    /**
+     * Stops the writer thread once it has run the commands already in the ring buffer. Commands sent afterwards run
+     * on the calling thread. A command that stops its own loop does not wait for the writer, since it is the writer;
+     * the writer stops once that command returns.
+     */
+    void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        if (Thread.currentThread() == writer) {
+            return;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package lin.cs151.theaterReservationAvailability;
+
+import lin.cs151.fileManagement.LayoutFileManagement;
+
+import java.util.*;
+
+/**
+ * Describes the seats of one theater hall: its sections, the seat numbers in each section and the price of each
+ * {@link SeatType seat type}. Sections are added one at a time, usually from a layout file read by
+ * {@link LayoutFileManagement}, and then compiled into flat tables so that finding a seat is a single array lookup.
+ *
+ * @author Raymond Lin
+ */
+public class VenueLayout {
+
+    private static final int MAIN_FLOOR_SECTION_MAX = 50;
+    private static final int SOUTH_BALCONY_SECTION_MAX = 25;
+    private static final int EAST_BALCONY_SECTION_MAX = 100;
+    private static final int WEST_BALCONY_SECTION_MAX = 100;
+
+    private static final int WORD_SIZE = 64;
+    private static final int MAX_SECTIONS = 64;
+    private static final int MAX_SEAT_NUMBER = 100000;
+
+    private static VenueLayout defaultLayout;
+
+    private String name;
+
+    private List<SeatType> sectionSeatTypes;
+    private List<String> sectionPrefixes;
+    private List<Integer> sectionFirstSeatNumbers;
+    private List<Integer> sectionLastSeatNumbers;
+    private List<String> sectionHeadings;
+    private double[] prices;
+
+    private int[] sectionOffset;
+    private int[] sectionSize;
+    private int totalSeats;
+    private int numberOfWords;
+    private int[] wordSection;
+
+    private List<String> prefixes;
+    private SeatId[][] seatIdTable;
+    private SeatId[] seatIdByIndex;
+
+    /**
+     * Creates a new, empty layout
+     *
+     * @param name the name of the hall
+     */
+    public VenueLayout(String name) {
+        this.name = name;
+        sectionSeatTypes = new ArrayList<>();
+        sectionPrefixes = new ArrayList<>();
+        sectionFirstSeatNumbers = new ArrayList<>();
+        sectionLastSeatNumbers = new ArrayList<>();
+        sectionHeadings = new ArrayList<>();
+        prices = new double[SeatType.values().length];
+    }
+
+    /**
+     * Gets the layout of the main hall. It is read once from the layout file, or built in if there is no layout file.
+     *
+     * @return the layout of the main hall
+     */
+    public static synchronized VenueLayout getDefaultLayout() {
+        if (defaultLayout == null) {
+            LayoutFileManagement layoutFileManagement = new LayoutFileManagement();
+            VenueLayout layout = layoutFileManagement.readLayout("layout.txt");
+            if (layout == null) {
+                layout = createBuiltInLayout();
+            }
+            defaultLayout = layout;
+        }
+        return defaultLayout;
+    }
+
+    /**
+     * Creates the layout the theater was originally built with
+     *
+     * @return the original layout, compiled
+     */
+    private static VenueLayout createBuiltInLayout() {
+        VenueLayout layout = new VenueLayout("Main Hall");
+        layout.setPrice(SeatType.MAIN_FLOOR_LEFT, 35);
+        layout.setPrice(SeatType.MAIN_FLOOR_RIGHT, 35);
+        layout.setPrice(SeatType.MAIN_FLOOR_CENTER, 45);
+        layout.setPrice(SeatType.SOUTH_BALCONY_UPPER, 50);
+        layout.setPrice(SeatType.SOUTH_BALCONY_LOWER, 55);
+        layout.setPrice(SeatType.EAST_BALCONY, 40);
+        layout.setPrice(SeatType.WEST_BALCONY, 40);
+        layout.addSection(SeatType.MAIN_FLOOR_LEFT, "m", 1, MAIN_FLOOR_SECTION_MAX, "Main Floor");
+        layout.addSection(SeatType.MAIN_FLOOR_RIGHT, "m", MAIN_FLOOR_SECTION_MAX + 1, 2 * MAIN_FLOOR_SECTION_MAX, "Main Floor");
+        layout.addSection(SeatType.MAIN_FLOOR_CENTER, "m", 2 * MAIN_FLOOR_SECTION_MAX + 1, 3 * MAIN_FLOOR_SECTION_MAX, "Main Floor");
+        layout.addSection(SeatType.SOUTH_BALCONY_UPPER, "sb", 1, SOUTH_BALCONY_SECTION_MAX, "South Balcony");
+        layout.addSection(SeatType.SOUTH_BALCONY_LOWER, "sb", SOUTH_BALCONY_SECTION_MAX + 1, 2 * SOUTH_BALCONY_SECTION_MAX, "South Balcony");
+        layout.addSection(SeatType.WEST_BALCONY, "wb", 1, WEST_BALCONY_SECTION_MAX, "West Balcony");
+        layout.addSection(SeatType.EAST_BALCONY, "eb", 1, EAST_BALCONY_SECTION_MAX, "East Balcony");
+        layout.compile();
+        return layout;
+    }
+
+    /**
+     * Sets the ticket price of a seat type in this hall
+     *
+     * @param seatType the seat type to price
+     * @param price    the price of one ticket
+     */
+    public void setPrice(SeatType seatType, double price) {
+        prices[seatType.ordinal()] = price;
+    }
+
+    /**
+     * Adds a section of seats. Sections are listed in the order they are added.
+     *
+     * @param seatType        the seat type of every seat in the section
+     * @param prefix          the characters of the seat numbers in the section, for example "sb"
+     * @param firstSeatNumber the numeric component of the first seat number in the section
+     * @param lastSeatNumber  the numeric component of the last seat number in the section
+     * @param heading         the heading the section is listed under, for example "South Balcony"
+     */
+    public void addSection(SeatType seatType, String prefix, int firstSeatNumber, int lastSeatNumber, String heading) {
+        sectionSeatTypes.add(seatType);
+        sectionPrefixes.add(prefix.toLowerCase());
+        sectionFirstSeatNumbers.add(firstSeatNumber);
+        sectionLastSeatNumbers.add(lastSeatNumber);
+        sectionHeadings.add(heading);
+    }
+
+    /**
+     * Compiles the sections into lookup tables. Each section is laid out as a range of bits that starts on its own
+     * word, so that counting or updating one section never touches the bits of another.
+     */
+    public void compile() {
+        int numberOfSections = sectionSeatTypes.size();
+        if (numberOfSections == 0 || numberOfSections > MAX_SECTIONS) {
+            throw new IllegalArgumentException("A layout must have between 1 and " + MAX_SECTIONS + " sections.");
+        }
+        sectionOffset = new int[numberOfSections];
+        sectionSize = new int[numberOfSections];
+        int offset = 0;
+        for (int i = 0; i < numberOfSections; i++) {
+            int size = sectionLastSeatNumbers.get(i) - sectionFirstSeatNumbers.get(i) + 1;
+            if (size <= 0 || sectionFirstSeatNumbers.get(i) <= 0 || sectionLastSeatNumbers.get(i) > MAX_SEAT_NUMBER) {
+                throw new IllegalArgumentException("Section " + (i + 1) + " of " + name + " has an invalid seat range.");
+            }
+            sectionOffset[i] = offset;
+            sectionSize[i] = size;
+            offset = (offset + size + WORD_SIZE - 1) / WORD_SIZE * WORD_SIZE;
+        }
+        totalSeats = offset;
+        numberOfWords = totalSeats / WORD_SIZE;
+        wordSection = new int[numberOfWords];
+        for (int i = 0; i < numberOfSections; i++) {
+            int lastWord = (sectionOffset[i] + sectionSize[i] - 1) / WORD_SIZE;
+            for (int w = sectionOffset[i] / WORD_SIZE; w <= lastWord; w++) {
+                wordSection[w] = i;
+            }
+        }
+        loadSeatIdTable();
+    }
+
+    /**
+     * Creates one {@link SeatId} for every seat, looked up by seat number prefix and numeric component or by position
+     * in the bit set
+     */
+    private void loadSeatIdTable() {
+        prefixes = new ArrayList<>();
+        for (String prefix : sectionPrefixes) {
+            if (!prefixes.contains(prefix)) {
+                prefixes.add(prefix);
+            }
+        }
+        int[] maxSeatNumber = new int[prefixes.size()];
+        for (int i = 0; i < sectionOffset.length; i++) {
+            int p = prefixes.indexOf(sectionPrefixes.get(i));
+            maxSeatNumber[p] = Math.max(maxSeatNumber[p], sectionLastSeatNumbers.get(i));
+        }
+        seatIdTable = new SeatId[prefixes.size()][];
+        for (int p = 0; p < prefixes.size(); p++) {
+            seatIdTable[p] = new SeatId[maxSeatNumber[p] + 1];
+        }
+        seatIdByIndex = new SeatId[totalSeats];
+        for (int i = 0; i < sectionOffset.length; i++) {
+            int p = prefixes.indexOf(sectionPrefixes.get(i));
+            for (int seat = 0; seat < sectionSize[i]; seat++) {
+                int seatNumber = sectionFirstSeatNumbers.get(i) + seat;
+                if (seatIdTable[p][seatNumber] != null) {
+                    throw new IllegalArgumentException("Seat " + sectionPrefixes.get(i) + seatNumber + " is in more than one section of " + name + ".");
+                }
+                SeatId seatId = new SeatId(sectionPrefixes.get(i), seatNumber, sectionSeatTypes.get(i), sectionOffset[i] + seat);
+                seatIdTable[p][seatNumber] = seatId;
+                seatIdByIndex[seatId.getIndex()] = seatId;
+            }
+        }
+    }
+
+    /**
+     * Looks up a seat number without creating any new objects
+     *
+     * @param text  the text containing the seat number
+     * @param start the position of the first character of the seat number, inclusive
+     * @param end   the position after the last character of the seat number, exclusive
+     * @return the {@link SeatId} for the seat number
+     * @throws SeatDoesNotExistException if the text is not the seat number of a seat in this hall
+     */
+    public SeatId parseSeatId(String text, int start, int end) throws SeatDoesNotExistException {
+        int digits = start;
+        while (digits < end && Character.isLetter(text.charAt(digits))) {
+            digits++;
+        }
+        int prefix = -1;
+        for (int p = 0; p < prefixes.size() && prefix < 0; p++) {
+            String candidate = prefixes.get(p);
+            if (candidate.length() == digits - start && candidate.regionMatches(true, 0, text, start, candidate.length())) {
+                prefix = p;
+            }
+        }
+        int seatNumber = 0;
+        for (int i = digits; i < end && prefix >= 0; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9' || seatNumber > MAX_SEAT_NUMBER) {
+                prefix = -1;
+            } else {
+                seatNumber = seatNumber * 10 + (c - '0');
+            }
+        }
+        if (prefix < 0 || digits == end || seatNumber >= seatIdTable[prefix].length || seatIdTable[prefix][seatNumber] == null) {
+            throw new SeatDoesNotExistException("One of the seats you have attempted to select does not exist. We did not attempt to add any seats. Please try again.");
+        }
+        return seatIdTable[prefix][seatNumber];
+    }
+
+    /**
+     * Looks up a seat number
+     *
+     * @param seatID the seat number, for example "sb40"
+     * @return the {@link SeatId} for the seat number
+     * @throws SeatDoesNotExistException if the seat number does not exist
+     */
+    public SeatId parseSeatId(String seatID) throws SeatDoesNotExistException {
+        return parseSeatId(seatID, 0, seatID.length());
+    }
+
+    /**
+     * Gets the name of the hall
+     *
+     * @return the name of the hall
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the ticket price of a seat type in this hall
+     *
+     * @param seatType the seat type
+     * @return the price of one ticket
+     */
+    public double getPrice(SeatType seatType) {
+        return prices[seatType.ordinal()];
+    }
+
+    /**
+     * Gets the seat at a position in the bit set
+     *
+     * @param index the position of the seat
+     * @return the {@link SeatId} at that position
+     */
+    SeatId getSeatId(int index) {
+        return seatIdByIndex[index];
+    }
+
+    /**
+     * Gets the number of sections
+     *
+     * @return the number of sections
+     */
+    int getNumberOfSections() {
+        return sectionOffset.length;
+    }
+
+    /**
+     * Gets the number of words needed to store one bit per seat
+     *
+     * @return the number of words
+     */
+    int getNumberOfWords() {
+        return numberOfWords;
+    }
+
+    /**
+     * Gets the section stored in a word
+     *
+     * @param word the word of the bit set
+     * @return the section number
+     */
+    int getWordSection(int word) {
+        return wordSection[word];
+    }
+
+    /**
+     * Gets the position of the first seat of a section
+     *
+     * @param section the section number
+     * @return the position of the first seat in the bit set
+     */
+    int getSectionOffset(int section) {
+        return sectionOffset[section];
+    }
+
+    /**
+     * Gets the number of seats in a section
+     *
+     * @param section the section number
+     * @return the number of seats
+     */
+    int getSectionSize(int section) {
+        return sectionSize[section];
+    }
+
+    /**
+     * Gets the seat type of a section
+     *
+     * @param section the section number
+     * @return the seat type of every seat in the section
+     */
+    SeatType getSectionSeatType(int section) {
+        return sectionSeatTypes.get(section);
+    }
+
+    /**
+     * Gets the heading a section is listed under
+     *
+     * @param section the section number
+     * @return the heading, for example "South Balcony"
+     */
+    String getSectionHeading(int section) {
+        return sectionHeadings.get(section);
+    }
+}
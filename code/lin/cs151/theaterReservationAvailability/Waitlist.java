@@ -0,0 +1,207 @@
+package lin.cs151.theaterReservationAvailability;
+
+import lin.cs151.reservationData.Reservation;
+
+import java.util.*;
+
+/**
+ * Parties waiting for seats of one show time. Whenever seats are released, the party that joined first and fits in
+ * the released seats is given a {@link SeatHold hold} on them automatically.
+ * Waiting parties are grouped by seat type and by party size, so finding the next party to seat only looks at the
+ * first party of each group instead of every waiting party.
+ *
+ * @author Raymond Lin
+ */
+public class Waitlist {
+
+    private SectionSeat sectionSeat;
+    private SeatHoldReaper seatHoldReaper;
+    private long holdMillis;
+    private List<SeatType> seatTypesByPrice;
+    private Map<SeatType, TreeMap<Integer, Deque<WaitlistEntry>>> waiting;
+    private TreeMap<Integer, Deque<WaitlistEntry>> waitingForAnySeatType;
+    private long nextSequence;
+    private int size;
+
+    /**
+     * Creates a new waitlist for a show time
+     *
+     * @param sectionSeat      the seats of the show time
+     * @param seatHoldReaper   the reaper that expires holds made for waiting parties
+     * @param holdMillis       how long seats found for a waiting party are held, in milliseconds
+     * @param seatTypesByPrice the seat types in the order they are offered to parties accepting any seat type
+     */
+    Waitlist(SectionSeat sectionSeat, SeatHoldReaper seatHoldReaper, long holdMillis, List<SeatType> seatTypesByPrice) {
+        this.sectionSeat = sectionSeat;
+        this.seatHoldReaper = seatHoldReaper;
+        this.holdMillis = holdMillis;
+        this.seatTypesByPrice = seatTypesByPrice;
+        this.waiting = new EnumMap<>(SeatType.class);
+        this.waitingForAnySeatType = new TreeMap<>();
+        this.nextSequence = 0;
+        this.size = 0;
+        for (SeatType seatType : SeatType.values()) {
+            waiting.put(seatType, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Adds a party to the end of the waitlist. If seats are already free for the party, they are held right away.
+     *
+     * @param reservation the {@link Reservation reservation} to hold seats for
+     * @param partySize   the number of seats needed together
+     * @param seatType    the only seat type the party accepts, or null to accept any seat type
+     * @return the party's place on the waitlist
+     * @throws SeatDoesNotExistException if no section has enough seats to ever seat the party together
+     */
+    public synchronized WaitlistEntry join(Reservation reservation, int partySize, SeatType seatType) throws SeatDoesNotExistException {
+        if (partySize <= 0 || partySize > findLargestSection(seatType)) {
+            throw new SeatDoesNotExistException("There is no section with " + partySize + " seats together. We did not add you to the waitlist.");
+        }
+        WaitlistEntry entry = new WaitlistEntry(this, reservation, partySize, seatType, nextSequence++);
+        getGroup(seatType).computeIfAbsent(partySize, k -> new ArrayDeque<>()).addLast(entry);
+        size++;
+        reservation.addWaitlistEntry(entry);
+        promote();
+        return entry;
+    }
+
+    /**
+     * Removes a party from the waitlist. Seats already held for the party are not released.
+     *
+     * @param entry the party's place on the waitlist
+     */
+    public synchronized void leave(WaitlistEntry entry) {
+        if (entry.isWaiting()) {
+            remove(entry);
+            entry.setCancelled();
+        }
+    }
+
+    /**
+     * Gets the number of parties still waiting
+     *
+     * @return the number of waiting parties
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Holds seats for waiting parties, first come first served, until no waiting party fits in the free seats.
+     * A party that does not fit does not stop a later, smaller party from being seated.
+     */
+    public synchronized void promote() {
+        while (size > 0 && sectionSeat.countAvailableSeats() > 0) {
+            WaitlistEntry next = null;
+            int longestRun = 0;
+            for (SeatType seatType : seatTypesByPrice) {
+                TreeMap<Integer, Deque<WaitlistEntry>> group = waiting.get(seatType);
+                if (group.isEmpty() && waitingForAnySeatType.isEmpty()) {
+                    continue;
+                }
+                int run = sectionSeat.findLongestFreeRun(seatType);
+                longestRun = Math.max(longestRun, run);
+                next = findEarliest(next, group, run);
+            }
+            next = findEarliest(next, waitingForAnySeatType, longestRun);
+            if (next == null) {
+                return;
+            }
+            String seats = findSeats(next);
+            if (seats.isEmpty()) {
+                return;
+            }
+            remove(next);
+            try {
+                SeatHold hold = sectionSeat.holdSeats(seats, next.getReservation(), System.currentTimeMillis() + holdMillis);
+                seatHoldReaper.schedule(hold);
+                next.setSeatHold(hold);
+            } catch (SeatOverBookException | SeatDoesNotExistException e) {
+                // someone else took the seats first, so the party keeps its place and the seats are looked up again
+                getGroup(next.getSeatType()).computeIfAbsent(next.getPartySize(), k -> new ArrayDeque<>()).addFirst(next);
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Finds the party that joined first among the first parties of every group small enough to fit
+     *
+     * @param earliest the earliest party found so far, or null
+     * @param group    waiting parties grouped by party size
+     * @param run      the most seats available together for the group
+     * @return the party that joined first, or null if no party fits
+     */
+    private WaitlistEntry findEarliest(WaitlistEntry earliest, TreeMap<Integer, Deque<WaitlistEntry>> group, int run) {
+        for (Deque<WaitlistEntry> parties : group.headMap(run, true).values()) {
+            WaitlistEntry first = parties.peekFirst();
+            if (earliest == null || first.getSequence() < earliest.getSequence()) {
+                earliest = first;
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * Finds side by side seats for a party, trying seat types from the most expensive if the party accepts any
+     *
+     * @param entry the waiting party
+     * @return the seat numbers, separated by commas
+     */
+    private String findSeats(WaitlistEntry entry) {
+        if (entry.getSeatType() != null) {
+            return sectionSeat.findContiguousSeats(entry.getPartySize(), entry.getSeatType());
+        }
+        for (SeatType seatType : seatTypesByPrice) {
+            String seats = sectionSeat.findContiguousSeats(entry.getPartySize(), seatType);
+            if (!seats.isEmpty()) {
+                return seats;
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Takes a party out of its group
+     *
+     * @param entry the waiting party
+     */
+    private void remove(WaitlistEntry entry) {
+        TreeMap<Integer, Deque<WaitlistEntry>> group = getGroup(entry.getSeatType());
+        Deque<WaitlistEntry> parties = group.get(entry.getPartySize());
+        if (parties != null && parties.remove(entry)) {
+            size--;
+            if (parties.isEmpty()) {
+                group.remove(entry.getPartySize());
+            }
+        }
+    }
+
+    /**
+     * Gets the waiting parties of a seat type, grouped by party size
+     *
+     * @param seatType the seat type, or null for parties accepting any seat type
+     * @return the waiting parties grouped by party size
+     */
+    private TreeMap<Integer, Deque<WaitlistEntry>> getGroup(SeatType seatType) {
+        return seatType == null ? waitingForAnySeatType : waiting.get(seatType);
+    }
+
+    /**
+     * Gets the size of the largest section a party could be seated in
+     *
+     * @param seatType the seat type, or null for any seat type
+     * @return the number of seats in the largest matching section
+     */
+    private int findLargestSection(SeatType seatType) {
+        VenueLayout layout = sectionSeat.getLayout();
+        int largest = 0;
+        for (int i = 0; i < layout.getNumberOfSections(); i++) {
+            if (seatType == null || layout.getSectionSeatType(i) == seatType) {
+                largest = Math.max(largest, layout.getSectionSize(i));
+            }
+        }
+        return largest;
+    }
+}
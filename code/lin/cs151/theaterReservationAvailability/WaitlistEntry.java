@@ -0,0 +1,116 @@
+package lin.cs151.theaterReservationAvailability;
+
+import lin.cs151.reservationData.Reservation;
+
+/**
+ * A party waiting for seats to be released for a sold out show time. Once seats are found, they are held for the
+ * party's {@link Reservation reservation} like any other {@link SeatHold hold}.
+ *
+ * @author Raymond Lin
+ */
+public class WaitlistEntry {
+
+    private Waitlist waitlist;
+    private Reservation reservation;
+    private int partySize;
+    private SeatType seatType;
+    private long sequence;
+    private volatile SeatHold seatHold;
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a new waiting party
+     *
+     * @param waitlist    the {@link Waitlist waitlist} the party is waiting on
+     * @param reservation the {@link Reservation reservation} seats are held for
+     * @param partySize   the number of seats needed together
+     * @param seatType    the only seat type the party accepts, or null to accept any seat type
+     * @param sequence    the order the party joined the waitlist in
+     */
+    WaitlistEntry(Waitlist waitlist, Reservation reservation, int partySize, SeatType seatType, long sequence) {
+        this.waitlist = waitlist;
+        this.reservation = reservation;
+        this.partySize = partySize;
+        this.seatType = seatType;
+        this.sequence = sequence;
+        this.seatHold = null;
+        this.cancelled = false;
+    }
+
+    /**
+     * Gets the {@link Reservation reservation} seats are held for
+     *
+     * @return the reservation
+     */
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+    /**
+     * Gets the number of seats needed together
+     *
+     * @return the party size
+     */
+    public int getPartySize() {
+        return partySize;
+    }
+
+    /**
+     * Gets the only seat type the party accepts
+     *
+     * @return the seat type, or null if the party accepts any seat type
+     */
+    public SeatType getSeatType() {
+        return seatType;
+    }
+
+    /**
+     * Gets the order the party joined the waitlist in
+     *
+     * @return a number that is lower for parties that joined earlier
+     */
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the {@link SeatHold hold} made when seats were found for the party
+     *
+     * @return the hold, or null if the party is still waiting
+     */
+    public SeatHold getSeatHold() {
+        return seatHold;
+    }
+
+    /**
+     * Checks if the party is still waiting for seats
+     *
+     * @return true if seats have not been found yet and the party has not left the waitlist
+     */
+    public boolean isWaiting() {
+        return seatHold == null && !cancelled;
+    }
+
+    /**
+     * Leaves the waitlist. Seats already held for the party are not released.
+     */
+    public void leave() {
+        waitlist.leave(this);
+    }
+
+    /**
+     * Records the {@link SeatHold hold} made when seats were found for the party
+     *
+     * @param seatHold the hold
+     */
+    void setSeatHold(SeatHold seatHold) {
+        this.seatHold = seatHold;
+    }
+
+    /**
+     * Marks the party as having left the waitlist
+     */
+    void setCancelled() {
+        cancelled = true;
+    }
+}
@@ -1,9 +1,7 @@
 package lin.cs151.ticketCost;
 
 import lin.cs151.theaterReservationAvailability.SeatType;
-
-import java.util.Map;
-import java.util.TreeMap;
+import lin.cs151.theaterReservationAvailability.VenueLayout;
 
 /**
  * Handles all pricing for each seat type defined by {@link SeatType SeatType}
@@ -12,36 +10,22 @@ import java.util.TreeMap;
  */
 public class Price {
 
-    private double[] prices;
-    private Map<SeatType, Integer> priceMap;
+    private VenueLayout layout;
 
     /**
-     * Creates a new instance of the seat type pricing
+     * Creates a new instance of the seat type pricing using the default {@link VenueLayout layout}
      */
     public Price() {
-        loadPrices();
-        loadPriceMap();
-    }
-
-    /**
-     * Loads prices into specific array
-     */
-    private void loadPrices() {
-        prices = new double[]{35, 45, 50, 55, 40};
+        this(VenueLayout.getDefaultLayout());
     }
 
     /**
-     * Maps out seat type defined by {@link SeatType SeatType} to the price index
+     * Creates a new instance of the seat type pricing
+     *
+     * @param layout the {@link VenueLayout layout} the prices are read from
      */
-    private void loadPriceMap() {
-        this.priceMap = new TreeMap<>();
-        priceMap.put(SeatType.MAIN_FLOOR_LEFT, 0);
-        priceMap.put(SeatType.MAIN_FLOOR_RIGHT, 0);
-        priceMap.put(SeatType.MAIN_FLOOR_CENTER, 1);
-        priceMap.put(SeatType.SOUTH_BALCONY_UPPER, 2);
-        priceMap.put(SeatType.SOUTH_BALCONY_LOWER, 3);
-        priceMap.put(SeatType.EAST_BALCONY, 4);
-        priceMap.put(SeatType.WEST_BALCONY, 4);
+    public Price(VenueLayout layout) {
+        this.layout = layout;
     }
 
     /**
@@ -51,6 +35,6 @@ public class Price {
      * @return the price of seat type in a double
      */
     public double getPrice(SeatType seatType) {
-        return prices[priceMap.get(seatType)];
+        return layout.getPrice(seatType);
     }
 }
@@ -4,6 +4,7 @@ import lin.cs151.reservationData.Reservation;
 import lin.cs151.reservationData.TicketItem;
 import lin.cs151.theaterReservationAvailability.SeatType;
 import lin.cs151.theaterReservationAvailability.SectionSeat;
+import lin.cs151.theaterReservationAvailability.VenueLayout;
 import lin.cs151.reservationData.ReservationTotalCostBreakDown;
 
 import java.time.LocalDateTime;
@@ -26,19 +27,29 @@ public class ReservationPriceCalculator {
     private Discounts discounts;
 
     /**
-     * Creates a new price calculator for a particular {@link Reservation reservation}
+     * Creates a new price calculator for a particular {@link Reservation reservation} in the default layout
      *
      * @param reservation reservation of calculate price for
      */
     public ReservationPriceCalculator(Reservation reservation) {
+        this(reservation, VenueLayout.getDefaultLayout());
+    }
+
+    /**
+     * Creates a new price calculator for a particular {@link Reservation reservation}
+     *
+     * @param reservation reservation of calculate price for
+     * @param layout      the {@link VenueLayout layout} of the auditorium the reservation is for
+     */
+    public ReservationPriceCalculator(Reservation reservation, VenueLayout layout) {
         this.dateAndTime = reservation.getMovieTimeSlot();
         this.numberOfSeatsReserved = reservation.getTotalSeatsReserved();
         this.seatIDs = reservation.getSeatIDsAsArray();
-        this.seatType = new SectionSeat();
+        this.seatType = new SectionSeat(layout);
 
         this.seatCount = new TreeMap<>();
         initializeSeatCount();
-        this.priceList = new Price();
+        this.priceList = new Price(layout);
         this.discounts = new Discounts();
     }
 
@@ -6,9 +6,11 @@ import lin.cs151.user.authentication.AuthenticationErrorException;
 
 import java.util.List;
 import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Manages all users in the system along with new sign ups.
+ * Manages all users in the system along with new sign ups. Several terminal sessions may sign users up and in at the
+ * same time.
  *
  * @author Raymond Lin
  */
@@ -16,6 +18,7 @@ public class UserManagement {
 
     private TreeSet<User> users;
     private UserFileManagement userFileManagement;
+    private ReentrantLock usersLock;
 
     /**
      * Creates a new UserManagement instance to hold all users for quick search.
@@ -24,6 +27,7 @@ public class UserManagement {
     public UserManagement() {
         this.users = new TreeSet<>();
         userFileManagement = new UserFileManagement();
+        usersLock = new ReentrantLock();
         List<User> users = userFileManagement.userFetch();
         if(users != null) {
             this.users.addAll(users);
@@ -38,6 +42,24 @@ public class UserManagement {
      * @throws UserExistsException if the username already exists in the system, this exception will be thrown
      */
     public User signUp(String username, String password) throws UserExistsException {
+        // held until the new user is written, so two sessions cannot sign up the same username
+        usersLock.lock();
+        try {
+            return addUser(username, password);
+        } finally {
+            usersLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a new user to file and memory if the username is not taken
+     *
+     * @param username the username for the new account, must be unique, case sensitive
+     * @param password the password for the new account, case sensitive
+     * @return the new user
+     * @throws UserExistsException if the username already exists in the system
+     */
+    private User addUser(String username, String password) throws UserExistsException {
         try {
             User user = fetchUser(username);
             String message = "The user: " + username + " already exists. Please log in normally. If you have forgotten your password, please navigate to \\hw1\\data\\users.txt, and delete the line with your own username on it.";
@@ -58,10 +80,15 @@ public class UserManagement {
      * @throws UserNotFoundException thrown when user object with username cannot be found
      */
     private User fetchUser(String username) throws UserNotFoundException {
-        for (User isUser : users) {
-            if (isUser.getUsername().compareTo(username) == 0) {
-                return isUser;
+        usersLock.lock();
+        try {
+            for (User isUser : users) {
+                if (isUser.getUsername().compareTo(username) == 0) {
+                    return isUser;
+                }
             }
+        } finally {
+            usersLock.unlock();
         }
         throw new UserNotFoundException("I could not find the user: " + username);
     }